@@ -0,0 +1,63 @@
+package org.crochet.benchmark;
+
+import org.crochet.enums.RoleType;
+import org.crochet.model.User;
+import org.crochet.properties.AppProperties;
+import org.crochet.service.TokenBlacklistService;
+import org.crochet.service.impl.JwtTokenServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Shared objects for the benchmarks, built without a Spring context or database.
+ */
+final class BenchmarkFixtures {
+    static final String USER_ID = "0HGQ4ZK3N8XTW";
+
+    private BenchmarkFixtures() {
+    }
+
+    static AppProperties appProperties(long verifiedTokenCacheSize) {
+        var appProperties = new AppProperties();
+        var auth = appProperties.getAuth();
+        auth.setTokenSecret(Base64.getEncoder().encodeToString(
+                "benchmark-token-secret-benchmark-token-secret-benchmark-secret!".getBytes()));
+        auth.setTokenExpirationMs(3_600_000);
+        auth.setVerifiedTokenCacheSize(verifiedTokenCacheSize);
+        return appProperties;
+    }
+
+    static JwtTokenServiceImpl jwtTokenService(AppProperties appProperties) {
+        return new JwtTokenServiceImpl(appProperties, new NoopTokenBlacklistService());
+    }
+
+    static User user() {
+        return User.builder()
+                .id(USER_ID)
+                .email("benchmark@example.com")
+                .role(RoleType.USER)
+                .emailVerified(true)
+                .build();
+    }
+
+    static final class NoopTokenBlacklistService implements TokenBlacklistService {
+        @Override
+        public void addTokenToBlacklist(String token, LocalDateTime expiresAt) {
+        }
+
+        @Override
+        public boolean isTokenBlacklisted(String token) {
+            return false;
+        }
+
+        @Override
+        public boolean isDigestBlacklisted(String tokenDigest) {
+            return false;
+        }
+
+        @Override
+        public void refreshBlacklist() {
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.crochet.benchmark;
+
+import org.crochet.security.oauth2.OAuth2AuthorizationRequestCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.util.SerializationUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OAuth2 authorization request cookie encoding: the signed field-level codec against the Java
+ * serialization previously done by {@code CookieUtils}. Encoded sizes are compared by
+ * {@code OAuth2AuthorizationRequestCodecTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CookieCodecBenchmark {
+    private OAuth2AuthorizationRequestCodec codec;
+    private OAuth2AuthorizationRequest authorizationRequest;
+    private String encoded;
+    private String serialized;
+
+    @Setup
+    public void setUp() {
+        codec = new OAuth2AuthorizationRequestCodec(BenchmarkFixtures.appProperties(0));
+        authorizationRequest = OAuth2AuthorizationRequest.authorizationCode()
+                .authorizationUri("https://accounts.google.com/o/oauth2/v2/auth")
+                .clientId("123456789012-abcdefghijklmnopqrstuvwxyz012345.apps.googleusercontent.com")
+                .redirectUri("https://api.tieuphuongcrochet.com/oauth2/callback/google")
+                .scopes(Set.of("email", "profile"))
+                .state("k2VbL0_Yy3Q3uUQ1m9a8Wc6dE5fR4tG3hJ2kL1zX0cV=")
+                .additionalParameters(Map.of("nonce", "a3F5dG9rZW4tbm9uY2UtdmFsdWUtZm9yLWJlbmNobWFyaw"))
+                .attributes(Map.of("registration_id", "google",
+                        "nonce", "bm9uY2UtYXR0cmlidXRlLXZhbHVlLWZvci1iZW5jaG1hcmstMDEyMzQ1Njc4OQ"))
+                .build();
+        encoded = codec.encode(authorizationRequest);
+        serialized = javaSerialize();
+    }
+
+    @Benchmark
+    public String codecEncode() {
+        return codec.encode(authorizationRequest);
+    }
+
+    @Benchmark
+    public OAuth2AuthorizationRequest codecDecode() {
+        return codec.decode(encoded);
+    }
+
+    @Benchmark
+    public String javaSerialize() {
+        return Base64.getUrlEncoder().encodeToString(SerializationUtils.serialize(authorizationRequest));
+    }
+
+    @Benchmark
+    public OAuth2AuthorizationRequest javaDeserialize() throws IOException, ClassNotFoundException {
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(serialized)))) {
+            return (OAuth2AuthorizationRequest) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.crochet.benchmark;
+
+import org.crochet.model.User;
+import org.crochet.service.impl.JwtTokenServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and validation. A verified token cache size of 0 measures a full parse and
+ * signature check on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtTokenServiceBenchmark {
+    @Param({"0", "10000"})
+    public long verifiedTokenCacheSize;
+
+    private JwtTokenServiceImpl jwtTokenService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenService = BenchmarkFixtures.jwtTokenService(
+                BenchmarkFixtures.appProperties(verifiedTokenCacheSize));
+        user = BenchmarkFixtures.user();
+        token = jwtTokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenService.validateToken(token);
+    }
+}
@@ -0,0 +1,76 @@
+package org.crochet.benchmark;
+
+import jakarta.servlet.FilterChain;
+import org.crochet.model.User;
+import org.crochet.properties.AppProperties;
+import org.crochet.security.CustomUserDetailsService;
+import org.crochet.security.PrincipalCache;
+import org.crochet.security.TokenAuthenticationFilter;
+import org.crochet.security.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TokenAuthenticationFilter} end to end for a request with a bearer token, with the user
+ * lookup stubbed so no database is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TokenAuthenticationFilterBenchmark {
+    @Param({"0", "10000"})
+    public long verifiedTokenCacheSize;
+
+    private TokenAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        AppProperties appProperties = BenchmarkFixtures.appProperties(verifiedTokenCacheSize);
+        var jwtTokenService = BenchmarkFixtures.jwtTokenService(appProperties);
+        var userDetailsService = new StubUserDetailsService(appProperties, BenchmarkFixtures.user());
+        filter = new TokenAuthenticationFilter(jwtTokenService, userDetailsService);
+        authorization = "Bearer " + jwtTokenService.generateToken(BenchmarkFixtures.user());
+    }
+
+    @Benchmark
+    public void authenticate(Blackhole blackhole) throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/v1/free-pattern/pagination");
+        request.addHeader("Authorization", authorization);
+        var response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) ->
+                blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        try {
+            filter.doFilter(request, response, chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    static final class StubUserDetailsService extends CustomUserDetailsService {
+        private final User principal;
+
+        StubUserDetailsService(AppProperties appProperties, User principal) {
+            super(null, new PrincipalCache(appProperties));
+            this.principal = principal;
+        }
+
+        @Override
+        public UserDetails loadUserByToken(VerifiedToken token) {
+            return principal;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.crochet.benchmark;
+
+import org.crochet.util.TokenUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TokenUtilsBenchmark {
+    private MockHttpServletRequest request;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        var jwtTokenService = BenchmarkFixtures.jwtTokenService(BenchmarkFixtures.appProperties(0));
+        token = jwtTokenService.generateToken(BenchmarkFixtures.user());
+        request = new MockHttpServletRequest("GET", "/api/v1/free-pattern/pagination");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public String getJwtFromAuthorizationHeader() {
+        return TokenUtils.getJwtFromAuthorizationHeader(request);
+    }
+
+    @Benchmark
+    public String digest() {
+        return TokenUtils.digest(token);
+    }
+}
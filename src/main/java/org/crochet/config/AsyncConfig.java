@@ -2,11 +2,16 @@ package org.crochet.config;
 
 import lombok.extern.slf4j.Slf4j;
 import org.crochet.constant.AppConstant;
+import org.crochet.properties.AppProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Configuration
@@ -16,4 +21,20 @@ public class AsyncConfig {
     Executor crochetTaskExecutor() {
         return Executors.newVirtualThreadPerTaskExecutor();
     }
+
+    /**
+     * Bounded executor for CPU-heavy password hashing. Tasks beyond the queue capacity are rejected
+     * immediately instead of piling up behind a burst of logins.
+     */
+    @Bean(name = AppConstant.PASSWORD_HASHING_EXECUTOR, destroyMethod = "shutdown")
+    ThreadPoolExecutor passwordHashingExecutor(AppProperties appProperties) {
+        var password = appProperties.getPassword();
+        return new ThreadPoolExecutor(
+                password.getHashingThreads(),
+                password.getHashingThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(password.getHashingQueueCapacity()),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
 }
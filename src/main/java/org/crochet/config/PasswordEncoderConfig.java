@@ -1,17 +1,28 @@
 package org.crochet.config;
 
+import org.crochet.properties.AppProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Map;
+
 @Configuration
 public class PasswordEncoderConfig {
 
-    private static final int BCRYPT_STRENGTH = 12;
+    private static final String BCRYPT_ID = "bcrypt";
 
+    /**
+     * Delegating encoder so stored hashes can be upgraded on login. Hashes without an id prefix are
+     * legacy BCrypt hashes, and hashes with a lower cost than configured report that they need an upgrade.
+     */
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(BCRYPT_STRENGTH);
+    PasswordEncoder passwordEncoder(AppProperties appProperties) {
+        var bcrypt = new BCryptPasswordEncoder(appProperties.getPassword().getBcryptStrength());
+        var encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 }
@@ -9,5 +9,6 @@ public class AppConstant {
     public static final String DATE_PATTERN = "yyyy-MM-dd HH:mm:ss";
     public static final long MAX_AGE_SECS = 3600;
     public static final String CROCHET_TASK_EXECUTOR = "crochetTaskExecutor";
+    public static final String PASSWORD_HASHING_EXECUTOR = "passwordHashingExecutor";
     public static final String SUCCESS = "Success";
 }
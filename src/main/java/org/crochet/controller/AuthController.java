@@ -39,8 +39,9 @@ public class AuthController {
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuthResponse.class)))
     @ResponseStatus(HttpStatus.OK)
     @PostMapping("/login")
-    public ResponseData<AuthResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        AuthResponse authResponse = authService.authenticateUser(loginRequest);
+    public ResponseData<AuthResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                                       HttpServletRequest request) {
+        AuthResponse authResponse = authService.authenticateUser(loginRequest, request);
         return ResponseUtil.success(authResponse);
     }
 
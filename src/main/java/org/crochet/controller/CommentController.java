@@ -10,6 +10,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.crochet.payload.request.CommentRequest;
 import org.crochet.payload.response.CommentResponse;
+import org.crochet.payload.response.CursorResponse;
 import org.crochet.payload.response.PaginationResponse;
 import org.crochet.payload.response.ResponseData;
 import org.crochet.service.CommentService;
@@ -75,6 +76,20 @@ public class CommentController {
         return ResponseUtil.success(response);
     }
     
+    @Operation(summary = "Lấy danh sách comments cho một bài viết theo cursor (infinite scroll)")
+    @ApiResponse(responseCode = "200", description = "Comments retrieved successfully",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = CursorResponse.class)))
+    @GetMapping("/blog/{blogId}/scroll")
+    public ResponseData<CursorResponse<CommentResponse>> getBlogPostCommentsByCursor(
+            @PathVariable("blogId") String blogId,
+            @RequestParam(value = "rootOnly", defaultValue = "true") boolean rootOnly,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        var response = commentService.getCommentsByBlogPostCursor(blogId, rootOnly, cursor, limit);
+        return ResponseUtil.success(response);
+    }
+    
     @Operation(summary = "Lấy danh sách root comments cho một sản phẩm")
     @ApiResponse(responseCode = "200", description = "Root comments retrieved successfully",
             content = @Content(mediaType = "application/json",
@@ -101,6 +116,20 @@ public class CommentController {
         return ResponseUtil.success(response);
     }
     
+    @Operation(summary = "Lấy danh sách comments cho một sản phẩm theo cursor (infinite scroll)")
+    @ApiResponse(responseCode = "200", description = "Comments retrieved successfully",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = CursorResponse.class)))
+    @GetMapping("/product/{productId}/scroll")
+    public ResponseData<CursorResponse<CommentResponse>> getProductCommentsByCursor(
+            @PathVariable("productId") String productId,
+            @RequestParam(value = "rootOnly", defaultValue = "true") boolean rootOnly,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        var response = commentService.getCommentsByProductCursor(productId, rootOnly, cursor, limit);
+        return ResponseUtil.success(response);
+    }
+    
     @Operation(summary = "Lấy danh sách root comments cho một free pattern")
     @ApiResponse(responseCode = "200", description = "Root comments retrieved successfully",
             content = @Content(mediaType = "application/json",
@@ -127,6 +156,20 @@ public class CommentController {
         return ResponseUtil.success(response);
     }
     
+    @Operation(summary = "Lấy danh sách comments cho một free pattern theo cursor (infinite scroll)")
+    @ApiResponse(responseCode = "200", description = "Comments retrieved successfully",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = CursorResponse.class)))
+    @GetMapping("/free-pattern/{freePatternId}/scroll")
+    public ResponseData<CursorResponse<CommentResponse>> getFreePatternCommentsByCursor(
+            @PathVariable("freePatternId") String freePatternId,
+            @RequestParam(value = "rootOnly", defaultValue = "true") boolean rootOnly,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        var response = commentService.getCommentsByFreePatternCursor(freePatternId, rootOnly, cursor, limit);
+        return ResponseUtil.success(response);
+    }
+    
     @Operation(summary = "Lấy danh sách replies cho một comment")
     @ApiResponse(responseCode = "200", description = "Replies retrieved successfully",
             content = @Content(mediaType = "application/json",
@@ -138,6 +181,21 @@ public class CommentController {
         return ResponseUtil.success(response);
     }
     
+    @Operation(summary = "Lấy root comments kèm các replies đầu tiên cho blog, product hoặc free-pattern")
+    @ApiResponse(responseCode = "200", description = "Comment threads retrieved successfully",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = CursorResponse.class)))
+    @GetMapping("/{target}/{targetId}/threads")
+    public ResponseData<CursorResponse<CommentResponse>> getThreadSnapshot(
+            @PathVariable("target") String target,
+            @PathVariable("targetId") String targetId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestParam(value = "replyLimit", defaultValue = "3") int replyLimit) {
+        var response = commentService.getThreadSnapshot(target, targetId, cursor, limit, replyLimit);
+        return ResponseUtil.success(response);
+    }
+    
     @Operation(summary = "Xóa một comment")
     @ApiResponse(responseCode = "204", description = "Comment deleted successfully")
     @ResponseStatus(HttpStatus.OK)
@@ -149,6 +207,17 @@ public class CommentController {
         return ResponseUtil.success();
     }
 
+    @Operation(summary = "Xóa tất cả comments của một người dùng")
+    @ApiResponse(responseCode = "200", description = "Comments of the user deleted successfully")
+    @ResponseStatus(HttpStatus.OK)
+    @DeleteMapping("/user/{userId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "BearerAuth")
+    public ResponseData<Long> deleteCommentsByUser(@PathVariable("userId") String userId) {
+        long deleted = commentService.deleteCommentsByUser(userId);
+        return ResponseUtil.success(deleted);
+    }
+
     @Operation(summary = "Count root comments cho một blog post")
     @ApiResponse(responseCode = "200", description = "Count root comments successfully")
     @GetMapping("/blog/{blogId}/root/count")
@@ -17,7 +17,9 @@ import org.crochet.payload.response.ResponseData;
 import org.crochet.service.FreePatternService;
 import org.crochet.util.ResponseUtil;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -57,13 +59,28 @@ public class FreePatternController {
     @ApiResponse(responseCode = "200", description = "Free Pattern details retrieved successfully",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = FreePatternResponse.class)))
-    @ResponseStatus(HttpStatus.OK)
     @GetMapping("/{id}")
-    public ResponseData<FreePatternResponse> getDetail(
+    public ResponseEntity<ResponseData<FreePatternResponse>> getDetail(
             @Parameter(description = "ID of the pattern to retrieve")
             @PathVariable("id") String id) {
         var response = freePatternService.getDetail(id);
-        return ResponseUtil.success(response);
+        // Trả về 304 mà không serialize body khi If-None-Match còn khớp. Không gửi Last-Modified:
+        // số comment, inCollection, tên tác giả và category thay đổi mà không cập nhật lastModifiedDate
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(detailETag(response))
+                .body(ResponseUtil.success(response));
+    }
+
+    /**
+     * Strong ETag of a detail response, derived from the hash of the cached content plus the
+     * comment count and collection status that are added to it per request.
+     */
+    private static String detailETag(FreePatternResponse response) {
+        return "\"" + response.getContentHash()
+                + '-' + response.getCommentCount()
+                + '-' + (Boolean.TRUE.equals(response.getInCollection()) ? 1 : 0)
+                + "\"";
     }
 
     @Operation(summary = "Delete a free pattern")
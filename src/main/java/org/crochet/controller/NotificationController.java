@@ -11,6 +11,7 @@ import org.crochet.security.CurrentUser;
 import org.crochet.service.NotificationService;
 import org.crochet.util.ResponseUtil;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/notifications")
@@ -48,6 +50,16 @@ public class NotificationController {
         return ResponseUtil.success(response);
     }
 
+    /**
+     * Stream new notifications ("notification" events) and unread count changes ("unread-count" events)
+     * of the current user, replacing polling of /me and /unread/count
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public SseEmitter streamCurrentUserNotifications(@CurrentUser User user) {
+        return notificationService.streamNotifications(user.getId());
+    }
+
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("/user/{receiverId}")
     @PreAuthorize("hasRole('ADMIN') or #receiverId == authentication.principal.username")
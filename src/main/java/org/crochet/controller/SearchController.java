@@ -0,0 +1,39 @@
+package org.crochet.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.crochet.payload.response.ResponseData;
+import org.crochet.service.SearchService;
+import org.crochet.util.ResponseUtil;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/search")
+@RequiredArgsConstructor
+public class SearchController {
+    private final SearchService searchService;
+
+    @Operation(summary = "Full-text search of free patterns, patterns, products and blog posts")
+    @ApiResponse(responseCode = "200", description = "Ranked ids keyed by type")
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping
+    public ResponseData<Map<String, List<String>>> search(
+            @Parameter(description = "Search text, diacritics are ignored")
+            @RequestParam("q") String query,
+            @Parameter(description = "free-pattern, pattern, product or blog; every type when omitted")
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        var response = searchService.search(query, type, limit);
+        return ResponseUtil.success(response);
+    }
+}
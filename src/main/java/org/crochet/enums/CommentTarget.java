@@ -0,0 +1,36 @@
+package org.crochet.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Đối tượng có thể được comment: bài viết, sản phẩm hoặc free pattern
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CommentTarget {
+    BLOG_POST("blog", "post_id", ResultCode.MSG_BLOG_NOT_FOUND),
+    PRODUCT("product", "product_id", ResultCode.MSG_PRODUCT_NOT_FOUND),
+    FREE_PATTERN("free-pattern", "free_pattern_id", ResultCode.MSG_FREE_PATTERN_NOT_FOUND);
+
+    // Giá trị dùng trên URL
+    private final String path;
+    // Cột khóa ngoại trong bảng comment
+    private final String column;
+    private final ResultCode notFound;
+
+    /**
+     * Tìm target theo giá trị trên URL
+     *
+     * @param path Giá trị trên URL
+     * @return CommentTarget, hoặc null nếu không hợp lệ
+     */
+    public static CommentTarget fromPath(String path) {
+        for (CommentTarget target : values()) {
+            if (target.path.equals(path)) {
+                return target;
+            }
+        }
+        return null;
+    }
+}
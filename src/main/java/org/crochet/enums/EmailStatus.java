@@ -0,0 +1,14 @@
+package org.crochet.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum EmailStatus {
+    PENDING("PENDING"),
+    SENT("SENT"),
+    FAILED("FAILED");
+
+    private final String value;
+}
@@ -55,6 +55,12 @@ public enum ResultCode {
     MSG_LOGOUT_SUCCESS(60, "Logged out success"),
     MSG_NO_PERMISSION_UPDATE_CATEGORY(62, "No permission to update this category"),
     MSG_NO_PERMISSION(63, "No permission"),
+    MSG_REFRESH_TOKEN_REUSED(64, "Refresh token was already used. Please make a new login..!"),
+    MSG_TOO_MANY_LOGIN_ATTEMPTS(65, "Too many login attempts. Please wait for a while before retrying."),
+    MSG_SERVER_BUSY(66, "Server is busy. Please try again later."),
+    MSG_INVALID_CURSOR(67, "Invalid pagination cursor"),
+    MSG_INVALID_COMMENT_TARGET(68, "Invalid comment target"),
+    MSG_INVALID_SEARCH_TYPE(69, "Invalid search type"),
     MSG_NO_PERMISSION_DELETE_CATEGORY(61, "No permission to delete this category");
 
     private final int code;
@@ -0,0 +1,39 @@
+package org.crochet.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Loại nội dung được đánh chỉ mục tìm kiếm, cùng bảng và các cột văn bản của nó
+ */
+@Getter
+@RequiredArgsConstructor
+public enum SearchType {
+    FREE_PATTERN("free-pattern", "free_pattern", "name", "author, description"),
+    PATTERN("pattern", "pattern", "name", "description"),
+    PRODUCT("product", "product", "name", "description"),
+    BLOG_POST("blog", "blog_post", "title", "content");
+
+    // Giá trị dùng trên URL
+    private final String path;
+    private final String table;
+    // Cột tiêu đề, có trọng số cao hơn khi xếp hạng
+    private final String titleColumn;
+    // Các cột nội dung, phân tách bằng dấu phẩy
+    private final String bodyColumns;
+
+    /**
+     * Tìm loại nội dung theo giá trị trên URL
+     *
+     * @param path Giá trị trên URL
+     * @return SearchType, hoặc null nếu không hợp lệ
+     */
+    public static SearchType fromPath(String path) {
+        for (SearchType type : values()) {
+            if (type.path.equals(path)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
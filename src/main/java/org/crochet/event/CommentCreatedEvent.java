@@ -1,11 +1,22 @@
 package org.crochet.event;
 
-import org.crochet.model.Comment;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
+import org.crochet.enums.CommentTarget;
 
+/**
+ * Published when a comment is created. Carries plain values only, since it is handled after the
+ * comment transaction has committed and its entities are detached.
+ */
 @Getter
+@Builder
 @AllArgsConstructor
 public class CommentCreatedEvent {
-    private final Comment comment;
+    private final String commentId;
+    private final String senderId;
+    private final String senderName;
+    private final CommentTarget target;
+    private final String targetId;
+    private final String mentionedUserId;
 }
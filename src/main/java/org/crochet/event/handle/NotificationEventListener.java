@@ -2,84 +2,72 @@ package org.crochet.event.handle;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.crochet.enums.ResultCode;
+import org.crochet.constant.AppConstant;
+import org.crochet.enums.CommentTarget;
 import org.crochet.event.CommentCreatedEvent;
-import org.crochet.exception.ResourceNotFoundException;
-import org.crochet.model.Comment;
 import org.crochet.model.Notification.NotificationType;
 import org.crochet.payload.request.NotificationRequest;
-import org.crochet.repository.UserRepository;
+import org.crochet.repository.NotificationRepository;
+import org.crochet.repository.NotificationRepository.CommentRecipient;
 import org.crochet.service.NotificationService;
 import org.crochet.util.CommentUtils;
 import org.crochet.util.ObjectUtils;
-import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates comment notifications after the comment transaction has committed, on the task executor.
+ * Posting a comment never waits on notification writes, and a failure here cannot roll back the
+ * comment.
+ */
 @Slf4j
 @RequiredArgsConstructor
 @Component
 public class NotificationEventListener {
     private final NotificationService notificationService;
-    private final UserRepository userRepository;
+    private final NotificationRepository notificationRepository;
 
-    @EventListener
+    @Async(AppConstant.CROCHET_TASK_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void handleCommentCreated(CommentCreatedEvent event) {
-        Comment comment = event.getComment();
-
-        log.info("Handling comment created event for comment ID: {}", comment.getId());
-
-        // Xử lý thông báo cho người tạo nội dung (đã có sẵn)
-        if (comment.getFreePattern() != null) {
-            var contentCreator = userRepository.findById(comment.getFreePattern().getCreatedBy())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            ResultCode.MSG_USER_NOT_FOUND.message(),
-                            ResultCode.MSG_USER_NOT_FOUND.code()));
-
-            log.info("Found content creator with ID: {}", contentCreator.getId());
-
-            // Không gửi thông báo cho người tạo nếu tự họ comment
-            if (ObjectUtils.notEqual(comment.getUser().getId(), contentCreator.getId())) {
-                log.info("Creating notification for content creator: {}", contentCreator.getId());
-
-                NotificationRequest notification = NotificationRequest.builder()
-                        .title("Bình luận mới")
-                        .message(CommentUtils.getMessage(comment))
-                        .link(CommentUtils.getLink(comment))
-                        .receiverId(contentCreator.getId())
-                        .senderId(comment.getUser().getId())
-                        .notificationType(NotificationType.COMMENT)
-                        .build();
-
-                notificationService.createNotification(notification);
-                log.info("Content creator notification created successfully");
+        try {
+            // Chỉ người tạo free pattern được thông báo khi có bình luận mới
+            String freePatternId = event.getTarget() == CommentTarget.FREE_PATTERN ? event.getTargetId() : null;
+            if (freePatternId == null && !ObjectUtils.hasText(event.getMentionedUserId())) {
+                return;
             }
-        }
-
-        // Thêm mới: Xử lý thông báo cho người được mention
-        if (ObjectUtils.hasText(comment.getMentionedUserId())) {
-            var mentionedUser = userRepository.findById(comment.getMentionedUserId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            ResultCode.MSG_USER_NOT_FOUND.message(),
-                            ResultCode.MSG_USER_NOT_FOUND.code()));
-
-            log.info("Found mentioned user with ID: {}", mentionedUser.getId());
 
-            // Không gửi thông báo nếu người được mention chính là người comment
-            if (!ObjectUtils.equals(comment.getUser().getId(), mentionedUser.getId())) {
-                log.info("Creating notification for mentioned user: {}", mentionedUser.getId());
-
-                NotificationRequest notification = NotificationRequest.builder()
-                        .title("Bạn được nhắc đến trong bình luận")
-                        .message(comment.getUser().getName() + " đã nhắc đến bạn trong một bình luận")
-                        .link(CommentUtils.getLink(comment))
-                        .receiverId(mentionedUser.getId())
-                        .senderId(comment.getUser().getId())
+            String link = CommentUtils.getLink(event.getTarget(), event.getTargetId());
+            List<NotificationRequest> notifications = new ArrayList<>(2);
+            for (CommentRecipient recipient : notificationRepository.findCommentRecipients(
+                    event.getMentionedUserId(), freePatternId)) {
+                // Không gửi thông báo cho chính người comment
+                if (ObjectUtils.equals(recipient.getUserId(), event.getSenderId())) {
+                    continue;
+                }
+                boolean mention = "MENTION".equals(recipient.getRole());
+                notifications.add(NotificationRequest.builder()
+                        .title(mention ? "Bạn được nhắc đến trong bình luận" : "Bình luận mới")
+                        .message(mention
+                                ? event.getSenderName() + " đã nhắc đến bạn trong một bình luận"
+                                : CommentUtils.getMessage(event.getTarget(), event.getSenderName()))
+                        .link(link)
+                        .receiverId(recipient.getUserId())
+                        .senderId(event.getSenderId())
                         .notificationType(NotificationType.COMMENT)
-                        .build();
-
-                notificationService.createNotification(notification);
-                log.info("Mention notification created successfully");
+                        .commentId(event.getCommentId())
+                        .build());
             }
+
+            notificationService.createNotifications(notifications);
+            log.debug("Created {} notifications for comment {}", notifications.size(), event.getCommentId());
+        } catch (RuntimeException e) {
+            log.error("Failed to create notifications for comment {}", event.getCommentId(), e);
         }
     }
-}
\ No newline at end of file
+}
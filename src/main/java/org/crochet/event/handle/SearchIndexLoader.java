@@ -0,0 +1,86 @@
+package org.crochet.event.handle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.crochet.constant.AppConstant;
+import org.crochet.enums.SearchType;
+import org.crochet.properties.AppProperties;
+import org.crochet.service.impl.SearchIndex;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the {@link SearchIndex} once the application is ready, on the task executor.
+ * <p>
+ * Each table is read in keyset-ordered chunks of {@code app.search.build-batch-size} rows, so the
+ * build never loads a whole table at once. Documents indexed by a write while the build runs are
+ * kept, since the row read by the build may be older, and documents removed while it runs are not
+ * indexed again.
+ */
+@Slf4j
+@Component
+public class SearchIndexLoader {
+    private final SearchIndex searchIndex;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final AppProperties.Search properties;
+
+    /**
+     * Constructor
+     *
+     * @param searchIndex   SearchIndex
+     * @param jdbcTemplate  NamedParameterJdbcTemplate
+     * @param appProperties AppProperties
+     */
+    public SearchIndexLoader(SearchIndex searchIndex,
+                             NamedParameterJdbcTemplate jdbcTemplate,
+                             AppProperties appProperties) {
+        this.searchIndex = searchIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = appProperties.getSearch();
+    }
+
+    @Async(AppConstant.CROCHET_TASK_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        for (SearchType type : SearchType.values()) {
+            searchIndex.startBuild(type);
+            try {
+                long start = System.currentTimeMillis();
+                long loaded = load(type);
+                log.info("Indexed {} {} documents for search in {} ms",
+                        loaded, type.getPath(), System.currentTimeMillis() - start);
+            } catch (RuntimeException e) {
+                log.error("Building the {} search index failed", type.getPath(), e);
+            } finally {
+                searchIndex.finishBuild(type);
+            }
+        }
+    }
+
+    private long load(SearchType type) {
+        var sql = "SELECT id, " + type.getTitleColumn() + " AS title,"
+                + " CONCAT_WS(' ', " + type.getBodyColumns() + ") AS body"
+                + " FROM " + type.getTable()
+                + " WHERE id > :lastId ORDER BY id LIMIT :batchSize";
+        String[] lastId = {""};
+        long loaded = 0;
+        while (true) {
+            var params = new MapSqlParameterSource()
+                    .addValue("lastId", lastId[0])
+                    .addValue("batchSize", properties.getBuildBatchSize());
+            int[] rows = {0};
+            jdbcTemplate.query(sql, params, rs -> {
+                lastId[0] = rs.getString("id");
+                searchIndex.load(type, lastId[0], rs.getString("title"), rs.getString("body"));
+                rows[0]++;
+            });
+            loaded += rows[0];
+            if (rows[0] < properties.getBuildBatchSize()) {
+                return loaded;
+            }
+        }
+    }
+}
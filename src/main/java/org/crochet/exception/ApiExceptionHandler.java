@@ -143,6 +143,13 @@ public class ApiExceptionHandler {
         return err;
     }
 
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ExceptionHandler({TooManyRequestsException.class})
+    public ResponseData<String> handleTooManyRequestsException(TooManyRequestsException ex) {
+        log.warn(ex.getMessage());
+        return ResponseUtil.error(ex.getMessageCode(), ex.getMessage(), ex.getCause());
+    }
+
     private ResponseData<String> handleInternalError(RuntimeException ex, int messageCode) {
         log.error(ex.getMessage());
         log.error(ex.toString());
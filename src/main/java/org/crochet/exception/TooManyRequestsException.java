@@ -0,0 +1,11 @@
+package org.crochet.exception;
+
+public class TooManyRequestsException extends DecoratedRuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+
+    public TooManyRequestsException(String message, int messageCode) {
+        super(message, messageCode);
+    }
+}
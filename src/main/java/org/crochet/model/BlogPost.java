@@ -62,4 +62,9 @@ public class BlogPost extends BaseEntity {
     @JoinColumn(name = "blog_category_id", referencedColumnName = "id")
     @JsonBackReference
     private BlogCategory blogCategory;
+
+    // Số lượng comments, chỉ được cập nhật bằng câu lệnh tăng/giảm khi tạo/xóa comment
+    @Column(name = "comment_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT DEFAULT 0")
+    private int commentCount;
 }
@@ -62,4 +62,9 @@ public class Comment extends BaseEntity {
     // ID của người dùng được nhắc đến (mention)
     @Column(name = "mentioned_user_id")
     private String mentionedUserId;
+
+    // Số lượng replies, chỉ được cập nhật bằng câu lệnh tăng/giảm khi tạo/xóa reply
+    @Column(name = "reply_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT DEFAULT 0")
+    private int replyCount;
 }
@@ -90,4 +90,9 @@ public class FreePattern extends BaseEntity {
     @OneToMany(mappedBy = "freePattern", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private Set<ColFrep> colfreps = new HashSet<>();
+
+    // Số lượng comments, chỉ được cập nhật bằng câu lệnh tăng/giảm khi tạo/xóa comment
+    @Column(name = "comment_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT DEFAULT 0")
+    private int commentCount;
 }
@@ -63,6 +63,10 @@ public class Notification {
     @Column(name = "notification_type", nullable = false)
     private NotificationType notificationType;
 
+    // Comment tạo ra thông báo này (nếu có), dùng để xóa thông báo khi comment bị xóa
+    @Column(name = "comment_id", length = 50)
+    private String commentId;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
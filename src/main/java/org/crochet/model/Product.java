@@ -73,4 +73,9 @@ public class Product extends BaseEntity {
             @AttributeOverride(name = "lastModified", column = @Column(name = "last_modified", columnDefinition = "datetime default current_timestamp"))
     })
     private Set<File> images;
+
+    // Số lượng comments, chỉ được cập nhật bằng câu lệnh tăng/giảm khi tạo/xóa comment
+    @Column(name = "comment_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT DEFAULT 0")
+    private int commentCount;
 }
@@ -21,10 +21,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class TokenBlacklist extends BaseEntity {
-    @Column(name = "token", nullable = false, unique = true)
-    private String token;
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
 
     @Temporal(TemporalType.TIMESTAMP)
     @Column(name = "blacklisted_at")
     private LocalDateTime blacklistedAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
 }
@@ -29,4 +29,6 @@ public class NotificationRequest {
     
     @NotNull
     private NotificationType notificationType;
+    
+    private String commentId;
 } 
\ No newline at end of file
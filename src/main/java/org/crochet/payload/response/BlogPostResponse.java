@@ -57,4 +57,17 @@ public class BlogPostResponse {
         this.username = username;
         this.userAvatar = userAvatar;
     }
+
+    public BlogPostResponse(String id,
+                            String title,
+                            String content,
+                            String fileContent,
+                            LocalDateTime createdDate,
+                            String userId,
+                            String username,
+                            String userAvatar,
+                            int commentCount) {
+        this(id, title, content, fileContent, createdDate, userId, username, userAvatar);
+        this.commentCount = (long) commentCount;
+    }
 }
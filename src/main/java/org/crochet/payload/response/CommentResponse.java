@@ -38,4 +38,20 @@ public class CommentResponse {
         this.content = content;
         this.createdDate = createdDate;
     }
+
+    // Constructor sử dụng trong các câu query lấy danh sách comments
+    public CommentResponse(String id, String content, LocalDateTime createdDate,
+                           String userId, String username, String userAvatar,
+                           String parentId, long replyCount, String mentionedUserId, String mentionedUsername) {
+        this.id = id;
+        this.content = content;
+        this.createdDate = createdDate;
+        this.userId = userId;
+        this.username = username;
+        this.userAvatar = userAvatar;
+        this.parentId = parentId;
+        this.replyCount = replyCount;
+        this.mentionedUserId = mentionedUserId;
+        this.mentionedUsername = mentionedUsername;
+    }
 }
\ No newline at end of file
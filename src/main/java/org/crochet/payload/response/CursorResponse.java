@@ -0,0 +1,21 @@
+package org.crochet.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorResponse<T> {
+    private List<T> contents;
+    // Cursor để lấy trang tiếp theo, null nếu đã hết dữ liệu
+    private String nextCursor;
+    private boolean last;
+}
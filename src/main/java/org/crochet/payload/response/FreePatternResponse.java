@@ -1,5 +1,6 @@
 package org.crochet.payload.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
@@ -8,10 +9,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.crochet.enums.ChartStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -37,6 +39,14 @@ public class FreePatternResponse {
     @JsonProperty("in_collection")
     private Boolean inCollection;
 
+    // Phiên bản của dòng đã nạp vào cache chi tiết, không trả về client
+    @JsonIgnore
+    private LocalDateTime lastModifiedDate;
+
+    // Hash nội dung chi tiết đã cache (gồm tên, avatar tác giả và category), dùng cho ETag, không trả về client
+    @JsonIgnore
+    private String contentHash;
+
     public FreePatternResponse(String id,
                                String name,
                                String description,
@@ -57,6 +67,11 @@ public class FreePatternResponse {
         this.userAvatar = userAvatar;
     }
 
+    public FreePatternResponse(int commentCount, LocalDateTime lastModifiedDate) {
+        this.commentCount = commentCount;
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
     public FreePatternResponse(String id,
                                String name,
                                String description,
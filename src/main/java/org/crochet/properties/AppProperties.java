@@ -13,6 +13,14 @@ import java.util.List;
 public class AppProperties {
     private final Auth auth = new Auth();
     private final OAuth2 oauth2 = new OAuth2();
+    private final Retention retention = new Retention();
+    private final Password password = new Password();
+    private final Mail mail = new Mail();
+    private final AccessLog accessLog = new AccessLog();
+    private final Comment comment = new Comment();
+    private final Notification notification = new Notification();
+    private final Collection collection = new Collection();
+    private final Search search = new Search();
 
     @Setter
     @Getter
@@ -20,11 +28,101 @@ public class AppProperties {
         private String tokenSecret;
         private long tokenExpirationMs;
         private long refreshTokenExpirationMs;
+        private long verifiedTokenCacheSize = 10_000;
+        private long verifiedTokenCacheTtlMs = 300_000;
+        private long principalCacheSize = 10_000;
+        private long principalCacheTtlMs = 60_000;
+        private long blacklistSyncIntervalMs = 30_000;
     }
 
     @Getter
     @Setter
     public static final class OAuth2 {
         private List<String> authorizedRedirectUris;
+        private int cookieCompressionThreshold = 256;
+    }
+
+    @Getter
+    @Setter
+    public static final class AccessLog {
+        private boolean enabled = true;
+        private double sampleRate = 0.1;
+        private long slowRequestMs = 1_000;
+        private int bufferSize = 8_192;
+        private long flushIntervalMs = 500;
+    }
+
+    @Getter
+    @Setter
+    public static final class Comment {
+        private String counterRepairCron = "0 30 1 * * *";
+        private int counterRepairBatchSize = 500;
+        private long threadCacheSize = 10_000;
+        private long threadCacheTtlMs = 60_000;
+        private int threadCacheRows = 50;
+        private int moderationBatchSize = 200;
+    }
+
+    @Getter
+    @Setter
+    public static final class Collection {
+        private long savedPatternCacheSize = 50_000;
+        private long savedPatternCacheIdleMs = 1_800_000;
+        private long savedPatternCacheTtlMs = 600_000;
+    }
+
+    @Getter
+    @Setter
+    public static final class Search {
+        private int buildBatchSize = 500;
+        private int maxResults = 100;
+        private int maxPrefixTerms = 50;
+    }
+
+    @Getter
+    @Setter
+    public static final class Notification {
+        private long unreadCounterSize = 100_000;
+        private long unreadCounterIdleMs = 3_600_000;
+        private long unreadReconcileIntervalMs = 300_000;
+        private int unreadReconcileBatchSize = 500;
+        private int streamBufferSize = 64;
+        private long streamHeartbeatMs = 20_000;
+        private long streamMaxLifetimeMs = 1_800_000;
+        private int streamMaxConnectionsPerUser = 5;
+    }
+
+    @Getter
+    @Setter
+    public static final class Mail {
+        private String fromAddress = "thamphuong.crochet@gmail.com";
+        private String fromName = "Little Crochet";
+        private long outboxPollIntervalMs = 5_000;
+        private int outboxBatchSize = 50;
+        private int maxAttempts = 8;
+        private long initialBackoffMs = 30_000;
+        private long maxBackoffMs = 3_600_000;
+    }
+
+    @Getter
+    @Setter
+    public static final class Password {
+        private int bcryptStrength = 12;
+        private int hashingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        private int hashingQueueCapacity = 64;
+        private long hashingTimeoutMs = 5_000;
+        private int maxAttemptsPerEmail = 5;
+        private int maxAttemptsPerIp = 20;
+        private long attemptWindowMs = 900_000;
+    }
+
+    @Getter
+    @Setter
+    public static final class Retention {
+        private String cron = "0 0 1 * * *";
+        private int batchSize = 500;
+        private long pauseMs = 100;
+        private int notificationRetentionDays = 90;
+        private int emailOutboxRetentionDays = 30;
     }
 }
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,7 +15,8 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BlogPostRepository extends JpaRepository<BlogPost, String>, JpaSpecificationExecutor<BlogPost> {
+public interface BlogPostRepository extends JpaRepository<BlogPost, String>, JpaSpecificationExecutor<BlogPost>,
+        CommentTargetRepository {
 
     @Query("""
             SELECT
@@ -26,7 +28,8 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, String>, Jpa
                 p.createdDate,
                 u.id,
                 u.name,
-                u.imageUrl
+                u.imageUrl,
+                p.commentCount
               )
             FROM
               BlogPost p
@@ -58,7 +61,8 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, String>, Jpa
                 p.createdDate,
                 u.id,
                 u.name,
-                u.imageUrl
+                u.imageUrl,
+                p.commentCount
               )
             FROM
               BlogPost p
@@ -79,7 +83,8 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, String>, Jpa
                 p.createdDate,
                 u.id,
                 u.name,
-                u.imageUrl
+                u.imageUrl,
+                p.commentCount
               )
             FROM
               BlogPost p
@@ -97,4 +102,13 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, String>, Jpa
               p.createdDate DESC
             """)
     List<String> getBlogIds(Pageable pageable);
+
+    @Query("select p.commentCount from BlogPost p where p.id = :id")
+    @Override
+    Optional<Integer> getCommentCount(@Param("id") String id);
+
+    @Override
+    @Modifying
+    @Query("update BlogPost p set p.commentCount = p.commentCount + :delta where p.id = :id")
+    int adjustCommentCount(@Param("id") String id, @Param("delta") int delta);
 }
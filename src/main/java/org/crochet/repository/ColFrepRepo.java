@@ -109,6 +109,14 @@ public interface ColFrepRepo extends JpaRepository<ColFrep, String> {
             """)
     long countByCollectionIdFast(@Param("collectionId") String collectionId);
 
+    // Id của tất cả free patterns mà user đã lưu trong bất kỳ collection nào
+    @Query("""
+            SELECT cf.freePattern.id
+            FROM ColFrep cf
+            WHERE cf.collection.user.id = :userId
+            """)
+    Set<String> findFreePatternIdsByUser(@Param("userId") String userId);
+
     // Tối ưu hóa: Lấy tất cả ColFrep cho nhiều free patterns của user
     @Query("""
             SELECT cf
@@ -0,0 +1,23 @@
+package org.crochet.repository;
+
+import org.crochet.enums.CommentTarget;
+import org.crochet.payload.response.CommentResponse;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface CommentRepoCustom {
+    // Lấy một trang comments của một đối tượng theo offset, mới nhất trước
+    List<CommentResponse> findPage(CommentTarget target, String targetId, boolean rootOnly, long offset, int limit);
+
+    // Lấy comments của một đối tượng đứng sau (cursorDate, cursorId), mới nhất trước
+    List<CommentResponse> findPageAfter(CommentTarget target, String targetId, boolean rootOnly,
+                                        LocalDateTime cursorDate, String cursorId, int limit);
+
+    // Đếm comments của một đối tượng
+    long count(CommentTarget target, String targetId, boolean rootOnly);
+
+    // Lấy tối đa perParent replies đầu tiên của mỗi comment cha, cũ nhất trước
+    List<CommentResponse> findFirstReplies(Collection<String> parentIds, int perParent);
+}
@@ -0,0 +1,120 @@
+package org.crochet.repository;
+
+import org.crochet.enums.CommentTarget;
+import org.crochet.payload.response.CommentResponse;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Comment queries shared by every {@link CommentTarget}.
+ * <p>
+ * The target only changes the foreign key column, so one SQL statement serves blog posts, products
+ * and free patterns. Rows are mapped straight to {@link CommentResponse}, including the author and
+ * the mentioned user, without loading entities.
+ */
+@Repository
+public class CommentRepoImpl implements CommentRepoCustom {
+    private static final String SELECT_COLUMNS = """
+            SELECT c.id, c.content, c.created_date, u.id AS user_id, u.name AS user_name,
+                   u.image_url AS user_avatar, c.parent_id, c.reply_count, c.mentioned_user_id,
+                   mu.name AS mentioned_user_name
+            """;
+
+    private static final String JOIN_USERS = """
+            JOIN users u ON u.id = c.user_id
+            LEFT JOIN users mu ON mu.id = c.mentioned_user_id
+            """;
+
+    private static final RowMapper<CommentResponse> ROW_MAPPER = (rs, rowNum) -> new CommentResponse(
+            rs.getString("id"),
+            rs.getString("content"),
+            rs.getObject("created_date", LocalDateTime.class),
+            rs.getString("user_id"),
+            rs.getString("user_name"),
+            rs.getString("user_avatar"),
+            rs.getString("parent_id"),
+            rs.getLong("reply_count"),
+            rs.getString("mentioned_user_id"),
+            rs.getString("mentioned_user_name"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor
+     *
+     * @param jdbcTemplate NamedParameterJdbcTemplate
+     */
+    public CommentRepoImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<CommentResponse> findPage(CommentTarget target, String targetId, boolean rootOnly,
+                                          long offset, int limit) {
+        var sql = SELECT_COLUMNS + "FROM comment c\n" + JOIN_USERS
+                + where(target, rootOnly)
+                + "ORDER BY c.created_date DESC, c.id DESC LIMIT :limit OFFSET :offset";
+        var params = new MapSqlParameterSource()
+                .addValue("targetId", targetId)
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+        return jdbcTemplate.query(sql, params, ROW_MAPPER);
+    }
+
+    @Override
+    public List<CommentResponse> findPageAfter(CommentTarget target, String targetId, boolean rootOnly,
+                                               LocalDateTime cursorDate, String cursorId, int limit) {
+        var sql = SELECT_COLUMNS + "FROM comment c\n" + JOIN_USERS
+                + where(target, rootOnly)
+                + "AND (c.created_date < :cursorDate OR (c.created_date = :cursorDate AND c.id < :cursorId))\n"
+                + "ORDER BY c.created_date DESC, c.id DESC LIMIT :limit";
+        var params = new MapSqlParameterSource()
+                .addValue("targetId", targetId)
+                .addValue("cursorDate", cursorDate)
+                .addValue("cursorId", cursorId)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(sql, params, ROW_MAPPER);
+    }
+
+    @Override
+    public long count(CommentTarget target, String targetId, boolean rootOnly) {
+        var sql = "SELECT COUNT(*) FROM comment c\n" + where(target, rootOnly);
+        Long count = jdbcTemplate.queryForObject(sql, new MapSqlParameterSource("targetId", targetId), Long.class);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public List<CommentResponse> findFirstReplies(Collection<String> parentIds, int perParent) {
+        if (parentIds.isEmpty() || perParent <= 0) {
+            return List.of();
+        }
+        var sql = SELECT_COLUMNS + """
+                FROM (
+                    SELECT r.id, r.content, r.created_date, r.user_id, r.parent_id, r.reply_count,
+                           r.mentioned_user_id,
+                           ROW_NUMBER() OVER (PARTITION BY r.parent_id ORDER BY r.created_date, r.id) AS rn
+                    FROM comment r
+                    WHERE r.parent_id IN (:parentIds)
+                ) c
+                """ + JOIN_USERS + """
+                WHERE c.rn <= :perParent
+                ORDER BY c.parent_id, c.created_date, c.id
+                """;
+        var params = new MapSqlParameterSource()
+                .addValue("parentIds", parentIds)
+                .addValue("perParent", perParent);
+        return jdbcTemplate.query(sql, params, ROW_MAPPER);
+    }
+
+    // Cột khóa ngoại lấy từ enum, không bao giờ từ dữ liệu người dùng
+    private static String where(CommentTarget target, boolean rootOnly) {
+        return "WHERE c." + target.getColumn() + " = :targetId\n"
+                + (rootOnly ? "AND c.parent_id IS NULL\n" : "");
+    }
+}
@@ -1,15 +1,18 @@
 package org.crochet.repository;
 
+import org.crochet.enums.CommentTarget;
 import org.crochet.model.Comment;
 import org.crochet.payload.response.CommentResponse;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, String> {
@@ -23,47 +26,84 @@ public interface CommentRepository extends JpaRepository<Comment, String> {
             """)
     List<CommentResponse> getRecentCommentsByUserId(@Param("userId") String userId);
     
-    // Lấy tất cả root comments (không có parent) cho một bài viết, hỗ trợ phân trang
-    Page<Comment> findByBlogPostIdAndParentIsNullOrderByCreatedDateDesc(String blogPostId, Pageable pageable);
-    
-    // Lấy tất cả replies cho một comment cụ thể
-    List<Comment> findByParentIdOrderByCreatedDateAsc(String parentId);
-    
-    // Lấy tất cả comments (cả root và replies) cho một bài viết
-    Page<Comment> findByBlogPostIdOrderByCreatedDateDesc(String blogPostId, Pageable pageable);
-    
-    // Đếm số lượng replies cho một comment
-    long countByParentId(String parentId);
-    
-    // Đếm số lượng root comments cho một bài viết
-    long countByBlogPostIdAndParentIsNull(String blogPostId);
-    
-    // Đếm số lượng comments cho một bài viết
-    long countByBlogPostId(String blogPostId);
-    
-    // Product comments
-    // Lấy tất cả root comments (không có parent) cho một product, hỗ trợ phân trang
-    Page<Comment> findByProductIdAndParentIsNullOrderByCreatedDateDesc(String productId, Pageable pageable);
-    
-    // Lấy tất cả comments (cả root và replies) cho một product
-    Page<Comment> findByProductIdOrderByCreatedDateDesc(String productId, Pageable pageable);
-    
-    // Đếm số lượng root comments cho một product
-    long countByProductIdAndParentIsNull(String productId);
-    
-    // Đếm số lượng comments cho một product
-    long countByProductId(String productId);
-    
-    // Free Pattern comments
-    // Lấy tất cả root comments (không có parent) cho một free pattern, hỗ trợ phân trang
-    Page<Comment> findByFreePatternIdAndParentIsNullOrderByCreatedDateDesc(String freePatternId, Pageable pageable);
-    
-    // Lấy tất cả comments (cả root và replies) cho một free pattern
-    Page<Comment> findByFreePatternIdOrderByCreatedDateDesc(String freePatternId, Pageable pageable);
-    
-    // Đếm số lượng root comments cho một free pattern
-    long countByFreePatternIdAndParentIsNull(String freePatternId);
-    
-    // Đếm số lượng comments cho một free pattern
-    long countByFreePatternId(String freePatternId);
-}
\ No newline at end of file
+    // Comment kèm thông tin người viết và người được mention, lấy trong một câu query
+    String COMMENT_RESPONSE_SELECT = """
+            SELECT new org.crochet.payload.response.CommentResponse(
+                c.id, c.content, c.createdDate,
+                u.id, u.name, u.imageUrl,
+                c.parent.id, c.replyCount, c.mentionedUserId, mu.name
+            )
+            FROM Comment c
+            JOIN c.user u
+            LEFT JOIN User mu ON mu.id = c.mentionedUserId
+            """;
+
+    // Lấy tất cả replies cho một comment cụ thể, kèm thông tin người viết
+    @Query(COMMENT_RESPONSE_SELECT + """
+            WHERE c.parent.id = :parentId
+            ORDER BY c.createdDate ASC
+            """)
+    List<CommentResponse> findRepliesByParentId(@Param("parentId") String parentId);
+
+    @Modifying
+    @Query("update Comment c set c.replyCount = c.replyCount + :delta where c.id = :id")
+    int adjustReplyCount(@Param("id") String id, @Param("delta") int delta);
+
+    // Thông tin sở hữu của một comment, không load entity và người viết
+    String COMMENT_OWNERSHIP_SELECT = """
+            SELECT c.id AS id, c.user.id AS userId, c.parent.id AS parentId,
+                   c.blogPost.id AS blogPostId, c.product.id AS productId, c.freePattern.id AS freePatternId
+            FROM Comment c
+            """;
+
+    @Query(COMMENT_OWNERSHIP_SELECT + "WHERE c.id = :id")
+    Optional<CommentOwnership> findOwnershipById(@Param("id") String id);
+
+    // Lấy một chunk comments của một người dùng, dùng cho việc xóa hàng loạt
+    @Query(COMMENT_OWNERSHIP_SELECT + "WHERE c.user.id = :userId ORDER BY c.id")
+    List<CommentOwnership> findOwnershipByUserId(@Param("userId") String userId, Pageable pageable);
+
+    // Xóa tất cả replies của các comments bằng một câu lệnh
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.parent.id IN :parentIds")
+    int deleteByParentIds(@Param("parentIds") Collection<String> parentIds);
+
+    // Xóa các comments bằng một câu lệnh
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<String> ids);
+
+    interface CommentOwnership {
+        String getId();
+
+        String getUserId();
+
+        String getParentId();
+
+        String getBlogPostId();
+
+        String getProductId();
+
+        String getFreePatternId();
+
+        default CommentTarget getTarget() {
+            if (getBlogPostId() != null) {
+                return CommentTarget.BLOG_POST;
+            } else if (getFreePatternId() != null) {
+                return CommentTarget.FREE_PATTERN;
+            } else if (getProductId() != null) {
+                return CommentTarget.PRODUCT;
+            }
+            return null;
+        }
+
+        default String getTargetId() {
+            if (getBlogPostId() != null) {
+                return getBlogPostId();
+            } else if (getFreePatternId() != null) {
+                return getFreePatternId();
+            }
+            return getProductId();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.crochet.repository;
+
+import java.util.Optional;
+
+/**
+ * Thao tác chung trên các đối tượng có thể được comment (bài viết, sản phẩm, free pattern)
+ */
+public interface CommentTargetRepository {
+    // Số lượng comments đã lưu, empty nếu đối tượng không tồn tại
+    Optional<Integer> getCommentCount(String id);
+
+    // Tăng/giảm số lượng comments bằng một câu lệnh update
+    int adjustCommentCount(String id, int delta);
+}
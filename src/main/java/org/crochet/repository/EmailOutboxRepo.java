@@ -0,0 +1,35 @@
+package org.crochet.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.crochet.enums.EmailStatus;
+import org.crochet.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepo extends JpaRepository<EmailOutbox, String> {
+    /**
+     * Lock the next due emails. Rows locked by another instance are skipped.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e
+            from EmailOutbox e
+            where e.status = :status
+            and e.nextAttemptAt <= :now
+            order by e.id
+            """)
+    List<EmailOutbox> lockDue(@Param("status") EmailStatus status,
+                              @Param("now") LocalDateTime now,
+                              Pageable pageable);
+}
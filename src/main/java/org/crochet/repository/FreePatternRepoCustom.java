@@ -1,10 +1,10 @@
 package org.crochet.repository;
 
 import org.crochet.model.FreePattern;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 
-import java.util.List;
-
 public interface FreePatternRepoCustom {
-    List<String> findAllIds(Specification<FreePattern> spec);
+    Page<String> findPageIds(Specification<FreePattern> spec, Pageable pageable);
 }
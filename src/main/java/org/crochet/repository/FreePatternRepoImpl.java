@@ -2,14 +2,23 @@ package org.crochet.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 import org.crochet.model.FreePattern;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Repository
@@ -17,21 +26,61 @@ public class FreePatternRepoImpl implements FreePatternRepoCustom {
     @PersistenceContext
     private EntityManager em;
 
+    /**
+     * Page the ids of the free patterns matching a specification, in the database.
+     * <p>
+     * One query reads the ids of the requested page and one COUNT query on the same predicate
+     * computes the total; the count is skipped when the page alone determines it.
+     *
+     * @param spec     Specification, may be null
+     * @param pageable Page and sort
+     * @return Ids of the page, in sort order
+     */
     @Override
-    public List<String> findAllIds(Specification<FreePattern> spec) {
+    public Page<String> findPageIds(Specification<FreePattern> spec, Pageable pageable) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<String> query = cb.createQuery(String.class);
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
         Root<FreePattern> root = query.from(FreePattern.class);
+        applySpecification(spec, root, query, cb);
 
-        query.select(root.get("id"));
+        // Các cột sort cũng được select, để truy vấn DISTINCT của specification vẫn hợp lệ
+        List<Order> orders = QueryUtils.toOrders(pageable.getSort(), root, cb);
+        List<Selection<?>> selections = new ArrayList<>(orders.size() + 1);
+        selections.add(root.get("id"));
+        orders.forEach(order -> selections.add(order.getExpression()));
+        query.multiselect(selections).orderBy(orders);
 
-        if (spec != null) {
-            Predicate predicate = spec.toPredicate(root, query, cb);
-            if (predicate != null) {
-                query.where(predicate);
-            }
+        TypedQuery<Tuple> typedQuery = em.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
         }
+        List<String> ids = typedQuery.getResultList().stream()
+                .map(tuple -> tuple.get(0, String.class))
+                .toList();
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(spec));
+    }
 
-        return em.createQuery(query).getResultList();
+    private long count(Specification<FreePattern> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<FreePattern> root = query.from(FreePattern.class);
+        applySpecification(spec, root, query, cb);
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        // Bỏ DISTINCT và ORDER BY mà specification có thể đã thêm vào
+        query.distinct(false);
+        query.orderBy(List.of());
+        return em.createQuery(query).getSingleResult();
+    }
+
+    private static void applySpecification(Specification<FreePattern> spec, Root<FreePattern> root,
+                                           CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
     }
 }
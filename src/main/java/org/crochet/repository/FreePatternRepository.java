@@ -23,7 +23,7 @@ import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface FreePatternRepository extends JpaRepository<FreePattern, String>,
-        JpaSpecificationExecutor<FreePattern> {
+        JpaSpecificationExecutor<FreePattern>, CommentTargetRepository {
 
     @EntityGraph(attributePaths = {"category", "images", "colfreps"})
     @Query("""
@@ -112,10 +112,8 @@ public interface FreePatternRepository extends JpaRepository<FreePattern, String
     })
     Page<FreePatternResponse> getFrepWithPageable(Pageable pageable);
 
-    @Query("select f.id from FreePattern f order by f.createdDate desc")
-    List<String> getFreePatternIds(Pageable pageable);
-
-    @Query("""
+    // Cùng projection với getFrepWithPageable, lọc theo category và category con như countByCategoryId
+    @Query(value = """
             SELECT
               new org.crochet.payload.response.FreePatternResponse (
                 fp.id,
@@ -130,14 +128,26 @@ public interface FreePatternRepository extends JpaRepository<FreePattern, String
               )
             FROM
               FreePattern fp
+              LEFT JOIN fp.category c
               LEFT JOIN User u ON fp.createdBy = u.id
-              LEFT JOIN fp.images i WITH i.order = 0
+              LEFT JOIN fp.images i
+            WITH
+              i.order = 0
             WHERE
-              u.id =:userId
-              AND fp.id IN :ids
+              c.id = :categoryId
+              OR c.parent.id = :categoryId
             """)
-    Page<FreePatternResponse> getByUserAndIds(@Param("userId") String userId, @Param("ids") List<String> ids,
-                                              Pageable pageable);
+    @QueryHints(value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "50"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    List<FreePatternResponse> getFrepByCategory(@Param("categoryId") String categoryId, Pageable pageable);
+
+    @Query("select f.id from FreePattern f where f.id in :ids and f.createdBy = :userId")
+    List<String> findIdsByIdInAndCreatedBy(@Param("ids") List<String> ids, @Param("userId") String userId);
+
+    @Query("select f.id from FreePattern f order by f.createdDate desc")
+    List<String> getFreePatternIds(Pageable pageable);
 
     @Query("""
             SELECT
@@ -259,4 +269,20 @@ public interface FreePatternRepository extends JpaRepository<FreePattern, String
             @QueryHint(name = HINT_READ_ONLY, value = "true")
     })
     long countByIsHome(@Param("isHome") boolean isHome);
-}
\ No newline at end of file
+
+    @Query("select f.commentCount from FreePattern f where f.id = :id")
+    @Override
+    Optional<Integer> getCommentCount(@Param("id") String id);
+
+    @Query("""
+            select new org.crochet.payload.response.FreePatternResponse(f.commentCount, f.lastModifiedDate)
+            from FreePattern f
+            where f.id = :id
+            """)
+    Optional<FreePatternResponse> getDetailVersion(@Param("id") String id);
+
+    @Override
+    @Modifying
+    @Query("update FreePattern f set f.commentCount = f.commentCount + :delta where f.id = :id")
+    int adjustCommentCount(@Param("id") String id, @Param("delta") int delta);
+}
@@ -42,6 +42,10 @@ public class FreePatternSpecifications {
         return (root, query, cb) -> cb.equal(root.get("status"), status);
     }
 
+    public static Specification<FreePattern> getByCreatedBy(String userId) {
+        return (root, query, cb) -> cb.equal(root.get("createdBy"), userId);
+    }
+
     public static Specification<FreePattern> getByIsHome(boolean isHome) {
         return (root, query, cb) -> cb.equal(root.get("isHome"), isHome);
     }
@@ -5,17 +5,69 @@ import org.crochet.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, String> {
     
     Page<Notification> findByReceiverOrderByCreatedAtDesc(User receiver, Pageable pageable);
     
-    @Query("SELECT COUNT(n) FROM Notification n WHERE n.receiver = :user AND n.isRead = false")
-    long countUnreadNotifications(@Param("user") User user);
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.receiver.id = :receiverId AND n.isRead = false")
+    long countUnreadNotifications(@Param("receiverId") String receiverId);
+
+    @Query("""
+            SELECT n.receiver.id AS receiverId, COUNT(n) AS unread FROM Notification n
+            WHERE n.receiver.id IN :receiverIds AND n.isRead = false
+            GROUP BY n.receiver.id
+            """)
+    List<UnreadCount> countUnreadNotifications(@Param("receiverIds") Collection<String> receiverIds);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.isRead = false")
+    int markAsRead(@Param("id") String id);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.receiver.id = :receiverId AND n.isRead = false")
+    int markAllAsRead(@Param("receiverId") String receiverId);
     
     void deleteAllByReceiver(User receiver);
+
+    // Xóa thông báo của các comments và replies của chúng
+    @Modifying
+    @Query("""
+            DELETE FROM Notification n
+            WHERE n.commentId IN :commentIds
+               OR n.commentId IN (SELECT c.id FROM Comment c WHERE c.parent.id IN :commentIds)
+            """)
+    int deleteByCommentTree(@Param("commentIds") Collection<String> commentIds);
+
+    // Người nhận thông báo của một comment mới: người được mention và người tạo free pattern, trong một câu query
+    @Query(value = """
+            SELECT u.id AS userId, 'MENTION' AS role FROM users u
+            WHERE u.id = :mentionedUserId
+            UNION ALL
+            SELECT u.id AS userId, 'CREATOR' AS role FROM free_pattern f
+            JOIN users u ON u.id = f.created_by
+            WHERE f.id = :freePatternId
+            """, nativeQuery = true)
+    List<CommentRecipient> findCommentRecipients(@Param("mentionedUserId") String mentionedUserId,
+                                                 @Param("freePatternId") String freePatternId);
+
+    interface CommentRecipient {
+        String getUserId();
+
+        String getRole();
+    }
+
+    interface UnreadCount {
+        String getReceiverId();
+
+        long getUnread();
+    }
 } 
\ No newline at end of file
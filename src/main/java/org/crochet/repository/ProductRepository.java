@@ -15,7 +15,8 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, String>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, String>, JpaSpecificationExecutor<Product>,
+        CommentTargetRepository {
 
     @Query("""
             SELECT
@@ -103,4 +104,13 @@ public interface ProductRepository extends JpaRepository<Product, String>, JpaSp
     @Modifying
     @Query("delete from Product p where p.id in :ids")
     void deleteMultiple(@Param("ids") List<String> ids);
-}
\ No newline at end of file
+
+    @Query("select p.commentCount from Product p where p.id = :id")
+    @Override
+    Optional<Integer> getCommentCount(@Param("id") String id);
+
+    @Override
+    @Modifying
+    @Query("update Product p set p.commentCount = p.commentCount + :delta where p.id = :id")
+    int adjustCommentCount(@Param("id") String id, @Param("delta") int delta);
+}
@@ -1,13 +1,14 @@
 package org.crochet.repository;
 
 import org.crochet.model.RefreshToken;
-import org.crochet.model.User;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -15,12 +16,31 @@ public interface RefreshTokenRepo extends JpaRepository<RefreshToken, String> {
     @EntityGraph(attributePaths = {"user"})
     Optional<RefreshToken> findByToken(String token);
 
+    @Modifying
     @Query("""
-            select r
-            from RefreshToken r
-            where r.user = ?1
-            and r.expiresAt > current_timestamp
+            update RefreshToken r
+            set r.revoked = true
+            where r.user.id = :userId
             and r.revoked = false
             """)
-    List<RefreshToken> findAllValidRefreshTokenByUser(User user);
-}
\ No newline at end of file
+    int revokeAllByUserId(@Param("userId") String userId);
+
+    @Modifying
+    @Query("""
+            update RefreshToken r
+            set r.revoked = true
+            where r.token = :token
+            and r.revoked = false
+            """)
+    int revokeByToken(@Param("token") String token);
+
+    @Modifying
+    @Query("""
+            update RefreshToken r
+            set r.revoked = true
+            where r.token = :token
+            and r.revoked = false
+            and r.expiresAt > :now
+            """)
+    int revokeIfActive(@Param("token") String token, @Param("now") LocalDateTime now);
+}
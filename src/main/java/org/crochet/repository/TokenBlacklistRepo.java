@@ -3,8 +3,13 @@ package org.crochet.repository;
 import org.crochet.model.TokenBlacklist;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface TokenBlacklistRepo extends JpaRepository<TokenBlacklist, String> {
-    Optional<TokenBlacklist> findByToken(String token);
-}
\ No newline at end of file
+    boolean existsByTokenHash(String tokenHash);
+
+    List<TokenBlacklist> findByExpiresAtAfter(LocalDateTime now);
+
+    List<TokenBlacklist> findByBlacklistedAtAfterAndExpiresAtAfter(LocalDateTime since, LocalDateTime now);
+}
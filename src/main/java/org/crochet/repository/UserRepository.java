@@ -14,6 +14,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,7 +46,19 @@ public interface UserRepository extends JpaRepository<User, String>, JpaSpecific
             """)
     Optional<UserResponse> getDetail(String id);
 
+    // Tên và ảnh của người viết và người được mention của một comment, trong một câu query
+    @Query("select u.id as id, u.name as name, u.imageUrl as imageUrl from User u where u.id in :ids")
+    List<UserSummary> findSummariesByIds(@Param("ids") Collection<String> ids);
+
     @Modifying
     @Query("delete from User u where u.id in :ids")
     void deleteMultipleUsers(@Param("ids") List<String> ids);
+
+    interface UserSummary {
+        String getId();
+
+        String getName();
+
+        String getImageUrl();
+    }
 }
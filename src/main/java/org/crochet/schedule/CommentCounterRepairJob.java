@@ -0,0 +1,145 @@
+package org.crochet.schedule;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.crochet.properties.AppProperties;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reconciles the denormalized comment counters with the comment table.
+ * <p>
+ * Rows are scanned in keyset-ordered chunks. For each chunk the actual counts are computed with one
+ * grouped query and only drifted rows are updated. An update only applies if the stored counter has
+ * not changed since it was read, so a concurrent increment is never overwritten; such a row is
+ * reconciled on the next run instead.
+ */
+@Slf4j
+@Component
+public class CommentCounterRepairJob {
+    private static final List<Counter> COUNTERS = List.of(
+            // Đối soát reply_count trên toàn bộ bảng, không dựa vào giới hạn độ sâu của createOrUpdate
+            new Counter("comment.reply_count", "comment", "reply_count", "parent_id"),
+            new Counter("blog_post.comment_count", "blog_post", "comment_count", "post_id"),
+            new Counter("product.comment_count", "product", "comment_count", "product_id"),
+            new Counter("free_pattern.comment_count", "free_pattern", "comment_count", "free_pattern_id")
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final AppProperties.Comment properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor
+     *
+     * @param jdbcTemplate  NamedParameterJdbcTemplate
+     * @param appProperties AppProperties
+     * @param meterRegistry MeterRegistry
+     */
+    public CommentCounterRepairJob(NamedParameterJdbcTemplate jdbcTemplate,
+                                   AppProperties appProperties,
+                                   MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = appProperties.getComment();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Reconcile every counter
+     *
+     * @return Number of rows repaired
+     */
+    public long repairAll() {
+        long total = 0;
+        for (Counter counter : COUNTERS) {
+            try {
+                total += repair(counter);
+            } catch (Exception e) {
+                log.error("Repair of {} failed", counter.getName(), e);
+            }
+        }
+        return total;
+    }
+
+    private long repair(Counter counter) {
+        var selectSql = "SELECT id, " + counter.getColumn() + " FROM " + counter.getTable()
+                + " WHERE id > :lastId ORDER BY id LIMIT :batchSize";
+        var countSql = "SELECT " + counter.getForeignKey() + " AS id, COUNT(*) AS cnt FROM comment"
+                + " WHERE " + counter.getForeignKey() + " IN (:ids)"
+                + " GROUP BY " + counter.getForeignKey();
+        var updateSql = "UPDATE " + counter.getTable() + " SET " + counter.getColumn() + " = :actual"
+                + " WHERE id = :id AND " + counter.getColumn() + " = :stored";
+
+        var repairedCounter = meterRegistry.counter("comment.counter.repaired", "counter", counter.getName());
+        String lastId = "";
+        long repaired = 0;
+        while (true) {
+            var params = new MapSqlParameterSource()
+                    .addValue("lastId", lastId)
+                    .addValue("batchSize", properties.getCounterRepairBatchSize());
+            Map<String, Integer> stored = new LinkedHashMap<>();
+            jdbcTemplate.query(selectSql, params,
+                    rs -> {
+                        stored.put(rs.getString(1), rs.getInt(2));
+                    });
+            if (stored.isEmpty()) {
+                break;
+            }
+
+            Map<String, Integer> actual = new HashMap<>();
+            jdbcTemplate.query(countSql, new MapSqlParameterSource("ids", stored.keySet()),
+                    rs -> {
+                        actual.put(rs.getString(1), rs.getInt(2));
+                    });
+
+            List<SqlParameterSource> updates = new ArrayList<>();
+            stored.forEach((id, storedCount) -> {
+                int actualCount = actual.getOrDefault(id, 0);
+                if (actualCount != storedCount) {
+                    updates.add(new MapSqlParameterSource()
+                            .addValue("id", id)
+                            .addValue("actual", actualCount)
+                            .addValue("stored", storedCount));
+                }
+            });
+            if (!updates.isEmpty()) {
+                for (int rows : jdbcTemplate.batchUpdate(updateSql, updates.toArray(SqlParameterSource[]::new))) {
+                    repaired += Math.max(rows, 0);
+                }
+            }
+
+            if (stored.size() < properties.getCounterRepairBatchSize()) {
+                break;
+            }
+            lastId = new ArrayList<>(stored.keySet()).getLast();
+        }
+
+        repairedCounter.increment(repaired);
+        if (repaired > 0) {
+            log.warn("Repaired {} drifted rows of {}", repaired, counter.getName());
+        }
+        return repaired;
+    }
+
+    /**
+     * A counter column and the comment foreign key it counts.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Counter {
+        private final String name;
+        private final String table;
+        private final String column;
+        private final String foreignKey;
+    }
+}
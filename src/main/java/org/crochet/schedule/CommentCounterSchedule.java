@@ -0,0 +1,20 @@
+package org.crochet.schedule;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CommentCounterSchedule {
+
+    private final CommentCounterRepairJob commentCounterRepairJob;
+
+    /**
+     * Schedule to reconcile reply and comment counters with the comment table
+     */
+    @Scheduled(cron = "${app.comment.counter-repair-cron:0 30 1 * * *}") // Runs at 1:30 AM every day by default
+    public void repairCounters() {
+        commentCounterRepairJob.repairAll();
+    }
+}
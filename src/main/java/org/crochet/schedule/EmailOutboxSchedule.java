@@ -0,0 +1,21 @@
+package org.crochet.schedule;
+
+import lombok.RequiredArgsConstructor;
+import org.crochet.service.EmailOutboxService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class EmailOutboxSchedule {
+
+    private final EmailOutboxService emailOutboxService;
+
+    /**
+     * Schedule to deliver queued emails
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox-poll-interval-ms:5000}")
+    public void deliverDueEmails() {
+        emailOutboxService.deliverDueEmails();
+    }
+}
@@ -0,0 +1,26 @@
+package org.crochet.schedule;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.crochet.service.NotificationService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationCounterSchedule {
+
+    private final NotificationService notificationService;
+
+    /**
+     * Schedule to reconcile the in-memory unread notification counts with the notifications table
+     */
+    @Scheduled(fixedDelayString = "${app.notification.unread-reconcile-interval-ms:300000}")
+    public void reconcileUnreadCounters() {
+        long corrected = notificationService.reconcileUnreadCounters();
+        if (corrected > 0) {
+            log.info("Reconciled {} unread notification counters", corrected);
+        }
+    }
+}
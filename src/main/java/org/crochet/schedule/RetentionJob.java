@@ -0,0 +1,134 @@
+package org.crochet.schedule;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.crochet.properties.AppProperties;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes expired rows in small keyset-ordered chunks.
+ * <p>
+ * Each chunk selects the next {@code batchSize} expired ids after the last one seen and deletes them
+ * in its own short transaction, pausing between chunks, so a purge never holds long locks or loads a
+ * whole table into memory.
+ * <p>
+ * Metrics, tagged by policy name:
+ * <ul>
+ *     <li>{@code retention.rows.deleted} - total rows deleted</li>
+ *     <li>{@code retention.progress} - rows deleted so far by the current or last run</li>
+ *     <li>{@code retention.run} - run duration</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class RetentionJob {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties.Retention properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicLong> progress = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param jdbcTemplate        NamedParameterJdbcTemplate
+     * @param transactionTemplate TransactionTemplate
+     * @param appProperties       AppProperties
+     * @param meterRegistry       MeterRegistry
+     */
+    public RetentionJob(NamedParameterJdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        AppProperties appProperties,
+                        MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = appProperties.getRetention();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Purge the expired rows of a policy
+     *
+     * @param policy RetentionPolicy
+     * @return Number of rows deleted
+     */
+    public long purge(RetentionPolicy policy) {
+        var deletedCounter = Counter.builder("retention.rows.deleted")
+                .tag("policy", policy.getName())
+                .register(meterRegistry);
+        var runProgress = progress.computeIfAbsent(policy.getName(), name -> {
+            var value = new AtomicLong();
+            Gauge.builder("retention.progress", value, AtomicLong::get)
+                    .tag("policy", name)
+                    .register(meterRegistry);
+            return value;
+        });
+        runProgress.set(0);
+
+        var selectSql = "SELECT id FROM " + policy.getTable()
+                + " WHERE (" + policy.getCondition() + ") AND id > :lastId"
+                + " ORDER BY id LIMIT :batchSize";
+        var deleteSql = "DELETE FROM " + policy.getTable() + " WHERE id IN (:ids)";
+        LocalDateTime cutoff = policy.getCutoff().get();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        log.info("Starting retention purge of {} older than {}", policy.getName(), cutoff);
+        String lastId = "";
+        long total = 0;
+        try {
+            while (true) {
+                var params = new MapSqlParameterSource()
+                        .addValue("cutoff", cutoff)
+                        .addValue("lastId", lastId)
+                        .addValue("batchSize", properties.getBatchSize());
+                List<String> ids = jdbcTemplate.queryForList(selectSql, params, String.class);
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                Integer deleted = transactionTemplate.execute(status ->
+                        jdbcTemplate.update(deleteSql, new MapSqlParameterSource("ids", ids)));
+                int count = deleted != null ? deleted : 0;
+                total += count;
+                deletedCounter.increment(count);
+                runProgress.addAndGet(count);
+                lastId = ids.getLast();
+
+                if (ids.size() < properties.getBatchSize()) {
+                    break;
+                }
+                pause();
+            }
+        } finally {
+            sample.stop(Timer.builder("retention.run")
+                    .tag("policy", policy.getName())
+                    .register(meterRegistry));
+        }
+        log.info("Completed retention purge of {}: {} rows deleted", policy.getName(), total);
+        return total;
+    }
+
+    private void pause() {
+        if (properties.getPauseMs() <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(properties.getPauseMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Retention purge interrupted", e);
+        }
+    }
+}
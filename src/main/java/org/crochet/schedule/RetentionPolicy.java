@@ -0,0 +1,32 @@
+package org.crochet.schedule;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Describes which rows of a table are expired and can be purged by the {@link RetentionJob}.
+ */
+@Getter
+public class RetentionPolicy {
+    private final String name;
+    private final String table;
+    private final String condition;
+    private final Supplier<LocalDateTime> cutoff;
+
+    /**
+     * Constructor
+     *
+     * @param name      Name used in logs and metrics
+     * @param table     Table to purge, its primary key must be the time-ordered {@code id} column
+     * @param condition SQL condition selecting expired rows, with {@code :cutoff} as the only parameter
+     * @param cutoff    Supplies the cutoff time at the start of each run
+     */
+    public RetentionPolicy(String name, String table, String condition, Supplier<LocalDateTime> cutoff) {
+        this.name = name;
+        this.table = table;
+        this.condition = condition;
+        this.cutoff = cutoff;
+    }
+}
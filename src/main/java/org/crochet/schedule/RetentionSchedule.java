@@ -0,0 +1,60 @@
+package org.crochet.schedule;
+
+import lombok.extern.slf4j.Slf4j;
+import org.crochet.properties.AppProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+public class RetentionSchedule {
+
+    private final RetentionJob retentionJob;
+    private final List<RetentionPolicy> policies;
+
+    /**
+     * Constructor
+     *
+     * @param retentionJob  RetentionJob
+     * @param appProperties AppProperties
+     */
+    public RetentionSchedule(RetentionJob retentionJob, AppProperties appProperties) {
+        this.retentionJob = retentionJob;
+        int notificationRetentionDays = appProperties.getRetention().getNotificationRetentionDays();
+        int emailOutboxRetentionDays = appProperties.getRetention().getEmailOutboxRetentionDays();
+        this.policies = List.of(
+                new RetentionPolicy("confirmation_token", "confirmation_token",
+                        "expires_at < :cutoff OR confirmed_at IS NOT NULL", LocalDateTime::now),
+                new RetentionPolicy("password_reset_token", "password_reset_token",
+                        "expires_at < :cutoff", LocalDateTime::now),
+                new RetentionPolicy("refresh_token", "refresh_token",
+                        "expires_at < :cutoff", LocalDateTime::now),
+                new RetentionPolicy("token_blacklist", "token_blacklist",
+                        "expires_at < :cutoff", LocalDateTime::now),
+                new RetentionPolicy("notifications", "notifications",
+                        "created_at < :cutoff", () -> LocalDateTime.now().minusDays(notificationRetentionDays)),
+                new RetentionPolicy("email_outbox", "email_outbox",
+                        "status <> 'PENDING' AND last_modified_date < :cutoff",
+                        () -> LocalDateTime.now().minusDays(emailOutboxRetentionDays))
+        );
+    }
+
+    /**
+     * Schedule to purge expired security tokens, old notifications and delivered emails
+     */
+    @Scheduled(cron = "${app.retention.cron:0 0 1 * * *}") // Runs at 1:00 AM every day by default
+    public void purgeExpiredRows() {
+        log.info("Starting retention purge");
+        for (RetentionPolicy policy : policies) {
+            try {
+                retentionJob.purge(policy);
+            } catch (Exception e) {
+                log.error("Retention purge of {} failed", policy.getName(), e);
+            }
+        }
+        log.info("Completed retention purge");
+    }
+}
@@ -0,0 +1,21 @@
+package org.crochet.schedule;
+
+import lombok.RequiredArgsConstructor;
+import org.crochet.service.TokenBlacklistService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TokenBlacklistSchedule {
+
+    private final TokenBlacklistService tokenBlacklistService;
+
+    /**
+     * Schedule to pick up tokens blacklisted by other instances
+     */
+    @Scheduled(fixedDelayString = "${app.auth.blacklist-sync-interval-ms:30000}")
+    public void refreshBlacklist() {
+        tokenBlacklistService.refreshBlacklist();
+    }
+}
@@ -0,0 +1,18 @@
+package org.crochet.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One request recorded by the {@link AccessLogFilter}.
+ */
+@Getter
+@AllArgsConstructor
+public class AccessLogEntry {
+    private final long timestamp;
+    private final String method;
+    private final String path;
+    private final String user;
+    private final int status;
+    private final long latencyMs;
+}
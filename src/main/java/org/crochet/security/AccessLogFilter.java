@@ -0,0 +1,80 @@
+package org.crochet.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.crochet.properties.AppProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records path, method, user, status and latency of requests to the {@link AccessLogWriter}.
+ * <p>
+ * Failed and slow requests are always recorded; successful requests are sampled at
+ * {@code app.access-log.sample-rate}.
+ */
+@Component
+@Order(2)
+public class AccessLogFilter extends OncePerRequestFilter {
+    private final AccessLogWriter accessLogWriter;
+    private final AppProperties.AccessLog properties;
+
+    /**
+     * Constructor
+     *
+     * @param accessLogWriter AccessLogWriter
+     * @param appProperties   AppProperties
+     */
+    public AccessLogFilter(AccessLogWriter accessLogWriter, AppProperties appProperties) {
+        this.accessLogWriter = accessLogWriter;
+        this.properties = appProperties.getAccessLog();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            long latencyMs = (System.nanoTime() - start) / 1_000_000;
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            if (shouldRecord(status, latencyMs)) {
+                Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+                accessLogWriter.offer(new AccessLogEntry(
+                        System.currentTimeMillis(),
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        auth != null ? auth.getName() : "anonymous",
+                        status,
+                        latencyMs));
+            }
+        }
+    }
+
+    private boolean shouldRecord(int status, long latencyMs) {
+        if (status >= 400 || latencyMs >= properties.getSlowRequestMs()) {
+            return true;
+        }
+        double sampleRate = properties.getSampleRate();
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
@@ -0,0 +1,128 @@
+package org.crochet.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.crochet.properties.AppProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes access log entries from a background thread.
+ * <p>
+ * Request threads publish entries into a bounded lock-free ring buffer and return immediately. A
+ * single writer thread drains the buffer and formats the log lines, so logging I/O never runs on
+ * the request path. When the buffer is full, entries are dropped and counted in
+ * {@code access.log.dropped} rather than blocking requests.
+ */
+@Slf4j
+@Component
+public class AccessLogWriter {
+    private static final Logger accessLog = LoggerFactory.getLogger("ACCESS_LOG");
+
+    private final AtomicReferenceArray<AccessLogEntry> slots;
+    private final int mask;
+    // Next sequence to be claimed by a producer
+    private final AtomicLong tail = new AtomicLong();
+    // Next sequence to be read by the writer
+    private final AtomicLong head = new AtomicLong();
+    private final long flushIntervalNanos;
+    private final Counter droppedCounter;
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * Constructor
+     *
+     * @param appProperties AppProperties
+     * @param meterRegistry MeterRegistry
+     */
+    public AccessLogWriter(AppProperties appProperties, MeterRegistry meterRegistry) {
+        var properties = appProperties.getAccessLog();
+        int capacity = Integer.highestOneBit(Math.max(2, properties.getBufferSize() - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.flushIntervalNanos = properties.getFlushIntervalMs() * 1_000_000;
+        this.droppedCounter = meterRegistry.counter("access.log.dropped");
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("access-log-writer")
+                .daemon(true)
+                .start(this::run);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(flushIntervalNanos / 1_000_000 + 1_000);
+    }
+
+    /**
+     * Publish an entry without blocking
+     *
+     * @param entry AccessLogEntry
+     * @return false if the buffer was full and the entry was dropped
+     */
+    public boolean offer(AccessLogEntry entry) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() >= slots.length()) {
+                droppedCounter.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.lazySet((int) sequence & mask, entry);
+        return true;
+    }
+
+    private void run() {
+        while (running) {
+            drain();
+            LockSupport.parkNanos(flushIntervalNanos);
+        }
+        drain();
+    }
+
+    private void drain() {
+        long sequence = head.get();
+        while (sequence < tail.get()) {
+            int index = (int) sequence & mask;
+            AccessLogEntry entry = slots.get(index);
+            if (entry == null) {
+                // Claimed but not yet published, pick it up on the next pass
+                break;
+            }
+            slots.lazySet(index, null);
+            head.lazySet(++sequence);
+            write(entry);
+        }
+    }
+
+    private void write(AccessLogEntry entry) {
+        try {
+            accessLog.info("ts={} method={} path={} user={} status={} latencyMs={}",
+                    Instant.ofEpochMilli(entry.getTimestamp()),
+                    entry.getMethod(),
+                    entry.getPath(),
+                    entry.getUser(),
+                    entry.getStatus(),
+                    entry.getLatencyMs());
+        } catch (RuntimeException e) {
+            log.warn("Failed to write access log entry", e);
+        }
+    }
+}
@@ -16,14 +16,18 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     /**
-     * Constructs a CustomUserDetailsService with the provided UserRepository dependency.
+     * Constructs a CustomUserDetailsService with the provided dependencies.
      *
      * @param userRepository The UserRepository dependency.
+     * @param principalCache The PrincipalCache dependency.
      */
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     /**
@@ -48,4 +52,60 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         return user;
     }
-}
\ No newline at end of file
+
+    /**
+     * Load a lightweight principal for a verified token.
+     * <p>
+     * The principal is served from the principal cache when possible, otherwise it is built from the
+     * signed role and email verification claims. The user is only read from the database for tokens
+     * without those claims, or issued before the user's security attributes last changed.
+     *
+     * @param token The verified token.
+     * @return The user details.
+     */
+    public UserDetails loadUserByToken(VerifiedToken token) {
+        String userId = token.getSubject();
+        User principal = principalCache.get(userId);
+        if (principal == null) {
+            if (token.hasPrincipalClaims() && !principalCache.isStale(userId, token.getIssuedAt())) {
+                principal = User.builder()
+                        .id(userId)
+                        .role(token.getRole())
+                        .emailVerified(token.getEmailVerified())
+                        .build();
+            } else {
+                principal = loadPrincipal(userId);
+            }
+            principalCache.put(principal);
+        }
+
+        // Check if the user is email verified
+        if (!principal.isEmailVerified()) {
+            throw new ResourceNotFoundException(ResultCode.MSG_EMAIL_NOT_VERIFIED.message(),
+                    ResultCode.MSG_EMAIL_NOT_VERIFIED.code());
+        }
+
+        return principal;
+    }
+
+    /**
+     * Build a lightweight principal from the user's detail projection, without loading the entity
+     * and its collections.
+     *
+     * @param userId The ID of the user.
+     * @return The principal.
+     */
+    private User loadPrincipal(String userId) {
+        var detail = userRepository.getDetail(userId)
+                .orElseThrow(() -> new ResourceNotFoundException(ResultCode.MSG_USER_LOGIN_REQUIRED.message(),
+                        ResultCode.MSG_USER_LOGIN_REQUIRED.code()));
+        return User.builder()
+                .id(detail.getId())
+                .name(detail.getName())
+                .email(detail.getEmail())
+                .imageUrl(detail.getImageUrl())
+                .role(detail.getRole())
+                .emailVerified(Boolean.TRUE.equals(detail.getEmailVerified()))
+                .build();
+    }
+}
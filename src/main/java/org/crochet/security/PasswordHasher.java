@@ -0,0 +1,107 @@
+package org.crochet.security;
+
+import org.crochet.constant.AppConstant;
+import org.crochet.enums.ResultCode;
+import org.crochet.exception.TooManyRequestsException;
+import org.crochet.properties.AppProperties;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs password hashing on the bounded password hashing executor.
+ * <p>
+ * BCrypt is deliberately slow, so a burst of logins must not be allowed to occupy every request
+ * thread and core. When the executor queue is full, or a hash does not complete in time, the request
+ * fails fast with a {@link TooManyRequestsException}.
+ */
+@Component
+public class PasswordHasher {
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    /**
+     * Constructor
+     *
+     * @param passwordEncoder PasswordEncoder
+     * @param executor        Password hashing executor
+     * @param appProperties   AppProperties
+     */
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Qualifier(AppConstant.PASSWORD_HASHING_EXECUTOR) ThreadPoolExecutor executor,
+                          AppProperties appProperties) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = executor;
+        this.timeoutMs = appProperties.getPassword().getHashingTimeoutMs();
+    }
+
+    /**
+     * Hash a raw password
+     *
+     * @param rawPassword Raw password
+     * @return Encoded password
+     */
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Check a raw password against an encoded one
+     *
+     * @param rawPassword     Raw password
+     * @param encodedPassword Encoded password
+     * @return true if the password matches
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Check if an encoded password should be re-hashed with the current settings
+     *
+     * @param encodedPassword Encoded password
+     * @return true if the password should be re-hashed
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private TooManyRequestsException busy() {
+        return new TooManyRequestsException(ResultCode.MSG_SERVER_BUSY.message(),
+                ResultCode.MSG_SERVER_BUSY.code());
+    }
+}
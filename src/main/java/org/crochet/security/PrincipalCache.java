@@ -0,0 +1,102 @@
+package org.crochet.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.crochet.model.User;
+import org.crochet.properties.AppProperties;
+import org.crochet.util.TransactionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived cache of authenticated principals, keyed by user id.
+ * <p>
+ * Also remembers when a user's security attributes last changed, so that principals are not
+ * rebuilt from the claims of tokens issued before that change.
+ */
+@Component
+public class PrincipalCache {
+    private final Cache<String, User> principals;
+    private final Cache<String, Long> changedAt;
+
+    /**
+     * Constructor
+     *
+     * @param appProperties AppProperties
+     */
+    public PrincipalCache(AppProperties appProperties) {
+        var auth = appProperties.getAuth();
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(auth.getPrincipalCacheSize())
+                .expireAfterWrite(auth.getPrincipalCacheTtlMs(), TimeUnit.MILLISECONDS)
+                .build();
+        // A change only matters while tokens issued before it can still be used
+        this.changedAt = Caffeine.newBuilder()
+                .expireAfterWrite(auth.getTokenExpirationMs(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Get a cached principal
+     *
+     * @param userId User id
+     * @return The principal, or null if not cached
+     */
+    public User get(String userId) {
+        return principals.getIfPresent(userId);
+    }
+
+    /**
+     * Cache a principal
+     *
+     * @param principal The principal
+     */
+    public void put(User principal) {
+        principals.put(principal.getId(), principal);
+    }
+
+    /**
+     * Checks whether the claims of a token issued at the given time may be out of date.
+     *
+     * @param userId   User id
+     * @param issuedAt Token issue time
+     * @return true if the user changed after the token was issued
+     */
+    public boolean isStale(String userId, Date issuedAt) {
+        Long changed = changedAt.getIfPresent(userId);
+        if (changed == null) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.getTime() <= changed;
+    }
+
+    /**
+     * Drop the cached principal of a user whose role, verification state or existence changed.
+     * <p>
+     * The principal is dropped at once and again after the transaction commits: a concurrent request
+     * may reload the old row before the commit, and that principal must not outlive the change.
+     *
+     * @param userId User id
+     */
+    public void invalidate(String userId) {
+        evict(userId);
+        TransactionUtils.afterCommit(() -> evict(userId));
+    }
+
+    /**
+     * Drop the cached principals of several users.
+     *
+     * @param userIds User ids
+     */
+    public void invalidateAll(Collection<String> userIds) {
+        userIds.forEach(this::invalidate);
+    }
+
+    private void evict(String userId) {
+        changedAt.put(userId, System.currentTimeMillis());
+        principals.invalidate(userId);
+    }
+}
@@ -53,23 +53,10 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
             // Get jwtToken
             var jwtToken = TokenUtils.getJwtFromAuthorizationHeader(request);
 
-            // Check if the JWT exists and is valid
-            if (hasText(jwtToken) && jwtTokenService.validateToken(jwtToken)) {
-                String username = jwtTokenService.extractUsername(jwtToken);
-
-                // Load the user details by email
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-                if (jwtTokenService.isTokenValid(jwtToken, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+            // Check if the JWT exists and is valid, parsing and verifying it only once
+            if (hasText(jwtToken)) {
+                jwtTokenService.verifyToken(jwtToken)
+                        .ifPresent(verifiedToken -> authenticate(request, verifiedToken));
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
@@ -78,4 +65,29 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
         // Continue the filter chain
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Loads the user for a verified token and stores the authentication in the security context.
+     *
+     * @param request       The HttpServletRequest object.
+     * @param verifiedToken The verified token.
+     */
+    private void authenticate(HttpServletRequest request, VerifiedToken verifiedToken) {
+        String username = verifiedToken.getSubject();
+
+        // Load the principal for the token, without touching the database when possible
+        UserDetails userDetails = customUserDetailsService.loadUserByToken(verifiedToken);
+        if (!username.equals(userDetails.getUsername())) {
+            return;
+        }
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
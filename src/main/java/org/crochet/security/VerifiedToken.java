@@ -0,0 +1,107 @@
+package org.crochet.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import org.crochet.enums.RoleType;
+
+import java.util.Date;
+
+/**
+ * A JWT whose signature has already been verified.
+ * <p>
+ * Holds the parsed subject, expiration and claims so that the token does not have to be parsed
+ * again for the rest of the request.
+ */
+@Getter
+public class VerifiedToken {
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_EMAIL_VERIFIED = "emailVerified";
+
+    private final String digest;
+    private final String subject;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final Claims claims;
+
+    /**
+     * Constructor
+     *
+     * @param digest SHA-256 digest of the raw token
+     * @param claims The verified claims
+     */
+    public VerifiedToken(String digest, Claims claims) {
+        this.digest = digest;
+        this.subject = claims.getSubject();
+        this.issuedAt = claims.getIssuedAt();
+        this.expiration = claims.getExpiration();
+        this.claims = claims;
+    }
+
+    /**
+     * Checks if the token is expired.
+     *
+     * @return true if the token is expired, false otherwise.
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    /**
+     * Remaining lifetime of the token in milliseconds.
+     *
+     * @return Milliseconds until expiration, or {@code Long.MAX_VALUE} if the token never expires
+     */
+    public long remainingMillis() {
+        if (expiration == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, expiration.getTime() - System.currentTimeMillis());
+    }
+
+    /**
+     * Extracts a claim with the required type.
+     *
+     * @param name         The claim name
+     * @param requiredType The claim type
+     * @param <T>          The claim type
+     * @return The claim value, or null if absent
+     */
+    public <T> T getClaim(String name, Class<T> requiredType) {
+        return claims.get(name, requiredType);
+    }
+
+    /**
+     * Role carried by the token, if it was issued with one.
+     *
+     * @return The role, or null if absent or unknown
+     */
+    public RoleType getRole() {
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (role == null) {
+            return null;
+        }
+        try {
+            return RoleType.valueOf(role);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Email verification flag carried by the token, if it was issued with one.
+     *
+     * @return The flag, or null if absent
+     */
+    public Boolean getEmailVerified() {
+        return claims.get(CLAIM_EMAIL_VERIFIED, Boolean.class);
+    }
+
+    /**
+     * Checks if the token carries the claims needed to build a principal without loading the user.
+     *
+     * @return true if role and email verification claims are present
+     */
+    public boolean hasPrincipalClaims() {
+        return getRole() != null && getEmailVerified() != null;
+    }
+}
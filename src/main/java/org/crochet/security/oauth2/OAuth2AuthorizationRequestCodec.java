@@ -0,0 +1,245 @@
+package org.crochet.security.oauth2;
+
+import lombok.extern.slf4j.Slf4j;
+import org.crochet.properties.AppProperties;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes an {@link OAuth2AuthorizationRequest} into a compact, signed cookie value.
+ * <p>
+ * Only the fields of the request are written, as length-prefixed UTF-8 strings, instead of a Java
+ * serialized object graph. Large payloads are deflated. The payload is signed with HMAC-SHA256 and
+ * the signature is checked before anything is parsed, so a tampered cookie is rejected without
+ * being decoded.
+ * <p>
+ * Layout, Base64url encoded without padding:
+ * {@code version(1) | flags(1) | payload | hmac(32)}
+ */
+@Slf4j
+@Component
+public class OAuth2AuthorizationRequestCodec {
+    private static final byte VERSION = 1;
+    private static final byte FLAG_DEFLATED = 1;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+    private static final int HEADER_LENGTH = 2;
+
+    private final SecretKeySpec key;
+    private final int compressionThreshold;
+
+    /**
+     * Constructor
+     *
+     * @param appProperties AppProperties
+     */
+    public OAuth2AuthorizationRequestCodec(AppProperties appProperties) {
+        this.key = deriveKey(appProperties.getAuth().getTokenSecret());
+        this.compressionThreshold = appProperties.getOauth2().getCookieCompressionThreshold();
+    }
+
+    /**
+     * Encode an authorization request
+     *
+     * @param request OAuth2AuthorizationRequest
+     * @return Cookie value
+     */
+    public String encode(OAuth2AuthorizationRequest request) {
+        byte[] payload = writePayload(request);
+        byte flags = 0;
+        if (payload.length >= compressionThreshold) {
+            byte[] deflated = deflate(payload);
+            if (deflated.length < payload.length) {
+                payload = deflated;
+                flags |= FLAG_DEFLATED;
+            }
+        }
+
+        byte[] value = new byte[HEADER_LENGTH + payload.length + MAC_LENGTH];
+        value[0] = VERSION;
+        value[1] = flags;
+        System.arraycopy(payload, 0, value, HEADER_LENGTH, payload.length);
+        byte[] mac = sign(value, HEADER_LENGTH + payload.length);
+        System.arraycopy(mac, 0, value, HEADER_LENGTH + payload.length, MAC_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value);
+    }
+
+    /**
+     * Decode an authorization request
+     *
+     * @param cookieValue Cookie value
+     * @return OAuth2AuthorizationRequest, or null if the value is malformed or its signature is invalid
+     */
+    public OAuth2AuthorizationRequest decode(String cookieValue) {
+        if (cookieValue == null || cookieValue.isEmpty()) {
+            return null;
+        }
+        try {
+            byte[] value = Base64.getUrlDecoder().decode(cookieValue);
+            if (value.length < HEADER_LENGTH + MAC_LENGTH || value[0] != VERSION) {
+                return null;
+            }
+            int signedLength = value.length - MAC_LENGTH;
+            byte[] expected = sign(value, signedLength);
+            byte[] actual = new byte[MAC_LENGTH];
+            System.arraycopy(value, signedLength, actual, 0, MAC_LENGTH);
+            if (!MessageDigest.isEqual(expected, actual)) {
+                log.warn("Rejected OAuth2 authorization request cookie with an invalid signature");
+                return null;
+            }
+
+            InputStream in = new ByteArrayInputStream(value, HEADER_LENGTH, signedLength - HEADER_LENGTH);
+            if ((value[1] & FLAG_DEFLATED) != 0) {
+                in = new InflaterInputStream(in);
+            }
+            return readPayload(new DataInputStream(in));
+        } catch (IllegalArgumentException | IOException e) {
+            log.warn("Rejected malformed OAuth2 authorization request cookie: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] writePayload(OAuth2AuthorizationRequest request) {
+        var bytes = new ByteArrayOutputStream(512);
+        try (var out = new DataOutputStream(bytes)) {
+            writeString(out, request.getAuthorizationUri());
+            writeString(out, request.getClientId());
+            writeString(out, request.getRedirectUri());
+            writeString(out, request.getState());
+            writeString(out, request.getAuthorizationRequestUri());
+            writeStrings(out, request.getScopes());
+            writeMap(out, request.getAdditionalParameters());
+            writeMap(out, request.getAttributes());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private OAuth2AuthorizationRequest readPayload(DataInputStream in) throws IOException {
+        String authorizationUri = readString(in);
+        String clientId = readString(in);
+        String redirectUri = readString(in);
+        String state = readString(in);
+        String authorizationRequestUri = readString(in);
+        Set<String> scopes = readStrings(in);
+        Map<String, Object> additionalParameters = readMap(in);
+        Map<String, Object> attributes = readMap(in);
+        return OAuth2AuthorizationRequest.authorizationCode()
+                .authorizationUri(authorizationUri)
+                .clientId(clientId)
+                .redirectUri(redirectUri)
+                .state(state)
+                .scopes(scopes)
+                .additionalParameters(additionalParameters)
+                .attributes(attributes)
+                .authorizationRequestUri(authorizationRequestUri)
+                .build();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeBoolean(false);
+            return;
+        }
+        out.writeBoolean(true);
+        out.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeStrings(DataOutputStream out, Collection<String> values) throws IOException {
+        out.writeShort(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static Set<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readUnsignedShort();
+        Set<String> values = new LinkedHashSet<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    // Parameters and attributes set by Spring Security during the authorization code flow are strings
+    private static void writeMap(DataOutputStream out, Map<String, Object> values) throws IOException {
+        out.writeShort(values.size());
+        for (var entry : values.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeString(out, entry.getValue() != null ? entry.getValue().toString() : null);
+        }
+    }
+
+    private static Map<String, Object> readMap(DataInputStream in) throws IOException {
+        int size = in.readUnsignedShort();
+        Map<String, Object> values = new LinkedHashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            values.put(in.readUTF(), readString(in));
+        }
+        return values;
+    }
+
+    private static byte[] deflate(byte[] payload) {
+        var bytes = new ByteArrayOutputStream(payload.length);
+        var deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (var out = new DeflaterOutputStream(bytes, deflater)) {
+            out.write(payload);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] sign(byte[] value, int length) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update(value, 0, length);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " not available", e);
+        }
+    }
+
+    /**
+     * Derive the cookie signing key from the token secret, so the JWT key is never used directly.
+     */
+    private static SecretKeySpec deriveKey(String tokenSecret) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(tokenSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            byte[] derived = mac.doFinal("oauth2-authorization-request".getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(derived, HMAC_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " not available", e);
+        }
+    }
+}
@@ -16,6 +16,17 @@ public class OAuth2CookieRepository implements AuthorizationRequestRepository<OA
     public static final String REDIRECT_URI_PARAM_COOKIE_NAME = "redirect_uri";
     private static final int cookieExpireSeconds = 180;
 
+    private final OAuth2AuthorizationRequestCodec codec;
+
+    /**
+     * Constructor
+     *
+     * @param codec OAuth2AuthorizationRequestCodec
+     */
+    public OAuth2CookieRepository(OAuth2AuthorizationRequestCodec codec) {
+        this.codec = codec;
+    }
+
     /**
      * Load authorized request
      *
@@ -25,7 +36,7 @@ public class OAuth2CookieRepository implements AuthorizationRequestRepository<OA
     @Override
     public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
         return CookieUtils.getCookie(request, OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME)
-                .map(cookie -> CookieUtils.deserialize(cookie, OAuth2AuthorizationRequest.class))
+                .map(cookie -> codec.decode(cookie.getValue()))
                 .orElse(null);
     }
 
@@ -46,7 +57,7 @@ public class OAuth2CookieRepository implements AuthorizationRequestRepository<OA
         }
 
         CookieUtils.addCookie(response, OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME,
-                CookieUtils.serialize(authorizationRequest), cookieExpireSeconds);
+                codec.encode(authorizationRequest), cookieExpireSeconds);
 
         String redirectUriAfterLogin = request.getParameter(REDIRECT_URI_PARAM_COOKIE_NAME);
         if (!redirectUriAfterLogin.isBlank()) {
@@ -8,7 +8,7 @@ import org.crochet.payload.response.AuthResponse;
 import org.crochet.payload.response.TokenResponse;
 
 public interface AuthService {
-    AuthResponse authenticateUser(LoginRequest loginRequest);
+    AuthResponse authenticateUser(LoginRequest loginRequest, HttpServletRequest request);
 
     void registerUser(SignUpRequest signUpRequest);
 
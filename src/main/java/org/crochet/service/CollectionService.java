@@ -3,6 +3,7 @@ package org.crochet.service;
 import org.crochet.payload.response.CollectionResponse;
 
 import java.util.List;
+import java.util.Set;
 
 public interface CollectionService {
     void addFreePatternToCollection(String collectionId, String freePatternId);
@@ -29,4 +30,6 @@ public interface CollectionService {
      * @return Map of free pattern id to boolean indicating if it's in a collection
      */
     java.util.Map<String, Boolean> checkFreePatternsInCollection(java.util.Set<String> freePatternIds);
+
+    Set<String> getSavedFreePatternIds(String userId);
 }
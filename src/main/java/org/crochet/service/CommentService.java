@@ -2,6 +2,7 @@ package org.crochet.service;
 
 import org.crochet.payload.request.CommentRequest;
 import org.crochet.payload.response.CommentResponse;
+import org.crochet.payload.response.CursorResponse;
 import org.crochet.payload.response.PaginationResponse;
 
 import java.util.List;
@@ -22,6 +23,9 @@ public interface CommentService {
     // Đếm số lượng tất cả comments cho một bài viết
     long countCommentsByBlogPost(String blogPostId);
     
+    // Lấy comments cho một bài viết theo cursor (keyset), không trả về tổng số
+    CursorResponse<CommentResponse> getCommentsByBlogPostCursor(String blogPostId, boolean rootOnly, String cursor, int limit);
+    
     // Product Comments
     // Lấy danh sách root comments cho một product (không bao gồm replies)
     PaginationResponse<CommentResponse> getRootCommentsByProduct(String productId, int pageNo, int pageSize);
@@ -35,6 +39,9 @@ public interface CommentService {
     // Đếm số lượng tất cả comments cho một product
     long countCommentsByProduct(String productId);
     
+    // Lấy comments cho một product theo cursor (keyset), không trả về tổng số
+    CursorResponse<CommentResponse> getCommentsByProductCursor(String productId, boolean rootOnly, String cursor, int limit);
+    
     // Free Pattern Comments
     // Lấy danh sách root comments cho một free pattern (không bao gồm replies)
     PaginationResponse<CommentResponse> getRootCommentsByFreePattern(String freePatternId, int pageNo, int pageSize);
@@ -48,10 +55,20 @@ public interface CommentService {
     // Đếm số lượng tất cả comments cho một free pattern
     long countCommentsByFreePattern(String freePatternId);
     
+    // Lấy comments cho một free pattern theo cursor (keyset), không trả về tổng số
+    CursorResponse<CommentResponse> getCommentsByFreePatternCursor(String freePatternId, boolean rootOnly, String cursor, int limit);
+    
     // Common methods
     // Lấy danh sách replies cho một comment cụ thể
     List<CommentResponse> getRepliesByCommentId(String commentId);
     
+    // Lấy một trang root comments kèm các replies đầu tiên của mỗi comment (blog, product hoặc free-pattern)
+    CursorResponse<CommentResponse> getThreadSnapshot(String target, String targetId, String cursor,
+                                                      int limit, int replyLimit);
+    
     // Xóa một comment
     void deleteComment(String commentId);
+    
+    // Xóa tất cả comments của một người dùng (dành cho admin)
+    long deleteCommentsByUser(String userId);
 }
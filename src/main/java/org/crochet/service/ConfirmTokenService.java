@@ -11,6 +11,4 @@ public interface ConfirmTokenService {
     void updateConfirmedAt(String token, LocalDateTime dateTime);
 
     ConfirmationToken getToken(String token);
-
-    void deleteExpiredOrConfirmedTokens();
 }
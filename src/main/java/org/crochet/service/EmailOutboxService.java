@@ -0,0 +1,5 @@
+package org.crochet.service;
+
+public interface EmailOutboxService {
+    int deliverDueEmails();
+}
@@ -1,10 +1,13 @@
 package org.crochet.service;
 
 import io.jsonwebtoken.Claims;
+import org.crochet.model.User;
+import org.crochet.security.VerifiedToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 public interface JwtTokenService {
@@ -18,6 +21,8 @@ public interface JwtTokenService {
 
     String generateToken(String username);
 
+    String generateToken(User user);
+
     String generateToken(
             Map<String, Object> extraClaims,
             String username
@@ -27,4 +32,6 @@ public interface JwtTokenService {
     String getUserIdFromToken(String token);
 
     boolean validateToken(String authToken);
+
+    Optional<VerifiedToken> verifyToken(String authToken);
 }
@@ -0,0 +1,9 @@
+package org.crochet.service;
+
+public interface LoginAttemptService {
+    void checkAllowed(String email, String clientIp);
+
+    void loginFailed(String email, String clientIp);
+
+    void loginSucceeded(String email, String clientIp);
+}
@@ -3,11 +3,16 @@ package org.crochet.service;
 import org.crochet.payload.request.NotificationRequest;
 import org.crochet.payload.response.NotificationResponse;
 import org.crochet.payload.response.PaginationResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
 
 public interface NotificationService {
     
     NotificationResponse createNotification(NotificationRequest notificationRequest);
     
+    void createNotifications(List<NotificationRequest> notificationRequests);
+    
     PaginationResponse<NotificationResponse> getUserNotifications(String receiverId, int page, int size);
     
     NotificationResponse markAsRead(String notificationId);
@@ -19,4 +24,8 @@ public interface NotificationService {
     void deleteNotification(String notificationId);
     
     void deleteAllUserNotifications(String receiverId);
+
+    SseEmitter streamNotifications(String receiverId);
+
+    long reconcileUnreadCounters();
 } 
\ No newline at end of file
@@ -11,7 +11,7 @@ public interface RefreshTokenService {
 
     RefreshToken verifyExpiration(RefreshToken token);
 
-    void revokeByToken(String token);
+    RefreshToken rotateRefreshToken(String token);
 
-    void deleteExpiredRefreshTokens();
+    void revokeByToken(String token);
 }
@@ -0,0 +1,8 @@
+package org.crochet.service;
+
+import java.util.List;
+import java.util.Map;
+
+public interface SearchService {
+    Map<String, List<String>> search(String query, String type, int limit);
+}
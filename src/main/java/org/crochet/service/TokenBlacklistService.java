@@ -1,7 +1,13 @@
 package org.crochet.service;
 
+import java.time.LocalDateTime;
+
 public interface TokenBlacklistService {
-    void addTokenToBlacklist(String token);
+    void addTokenToBlacklist(String token, LocalDateTime expiresAt);
 
     boolean isTokenBlacklisted(String token);
+
+    boolean isDigestBlacklisted(String tokenDigest);
+
+    void refreshBlacklist();
 }
@@ -1,15 +1,14 @@
 package org.crochet.service.impl;
 
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
-import io.github.resilience4j.retry.annotation.Retry;
 import jakarta.servlet.http.HttpServletRequest;
 import org.crochet.enums.ResultCode;
+import org.crochet.exception.BadRequestException;
 import org.crochet.exception.EmailVerificationException;
 import org.crochet.exception.ResourceNotFoundException;
 import org.crochet.exception.TokenException;
 import org.crochet.model.ConfirmationToken;
 import org.crochet.model.PasswordResetToken;
-import org.crochet.model.RefreshToken;
 import org.crochet.model.User;
 import org.crochet.payload.request.LoginRequest;
 import org.crochet.payload.request.PasswordResetRequest;
@@ -20,10 +19,12 @@ import org.crochet.service.AuthService;
 import org.crochet.service.ConfirmTokenService;
 import org.crochet.service.EmailSender;
 import org.crochet.service.JwtTokenService;
+import org.crochet.service.LoginAttemptService;
 import org.crochet.service.PasswordResetTokenService;
 import org.crochet.service.RefreshTokenService;
 import org.crochet.service.TokenBlacklistService;
 import org.crochet.service.UserService;
+import org.crochet.util.EmailTemplate;
 import org.crochet.util.ObjectUtils;
 import org.crochet.util.TokenUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -32,12 +33,17 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
 
 /**
  * AuthServiceImpl class
  */
 @Service
 public class AuthServiceImpl implements AuthService {
+    private static final EmailTemplate ACTION_LINK_TEMPLATE =
+            EmailTemplate.load("templates/email/action-link.html");
+
     private final ConfirmTokenService confirmTokenService;
     private final PasswordResetTokenService passwordResetTokenService;
     private final UserService userService;
@@ -45,6 +51,7 @@ public class AuthServiceImpl implements AuthService {
     private final RefreshTokenService refreshTokenService;
     private final JwtTokenService jwtTokenService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final LoginAttemptService loginAttemptService;
 
     /**
      * Constructor
@@ -56,6 +63,7 @@ public class AuthServiceImpl implements AuthService {
      * @param refreshTokenService       RefreshTokenService
      * @param jwtTokenService           JwtTokenService
      * @param tokenBlacklistService     TokenBlacklistService
+     * @param loginAttemptService       LoginAttemptService
      */
     public AuthServiceImpl(ConfirmTokenService confirmTokenService,
                            PasswordResetTokenService passwordResetTokenService,
@@ -63,7 +71,8 @@ public class AuthServiceImpl implements AuthService {
                            EmailSender emailSender,
                            RefreshTokenService refreshTokenService,
                            JwtTokenService jwtTokenService,
-                           TokenBlacklistService tokenBlacklistService) {
+                           TokenBlacklistService tokenBlacklistService,
+                           LoginAttemptService loginAttemptService) {
         this.confirmTokenService = confirmTokenService;
         this.passwordResetTokenService = passwordResetTokenService;
         this.userService = userService;
@@ -71,18 +80,34 @@ public class AuthServiceImpl implements AuthService {
         this.refreshTokenService = refreshTokenService;
         this.jwtTokenService = jwtTokenService;
         this.tokenBlacklistService = tokenBlacklistService;
+        this.loginAttemptService = loginAttemptService;
     }
 
     /**
      * Authenticates a user based on the provided login credentials.
      *
      * @param loginRequest The login request containing the user's email and password.
+     * @param request      The HTTP request, used to throttle attempts per client IP.
+     *                     Behind the router the remote address is taken from X-Forwarded-For.
      * @return An AuthResponse containing the authentication token.
      */
     @Override
-    public AuthResponse authenticateUser(LoginRequest loginRequest) {
+    public AuthResponse authenticateUser(LoginRequest loginRequest, HttpServletRequest request) {
+        var email = loginRequest.getEmail();
+        var clientIp = request.getRemoteAddr();
+
+        // Reject before hashing if there were too many recent failures
+        loginAttemptService.checkAllowed(email, clientIp);
+
         // Check email and password
-        var user = userService.validateUserCredentials(loginRequest.getEmail(), loginRequest.getPassword());
+        User user;
+        try {
+            user = userService.validateUserCredentials(email, loginRequest.getPassword());
+        } catch (BadRequestException | ResourceNotFoundException ex) {
+            loginAttemptService.loginFailed(email, clientIp);
+            throw ex;
+        }
+        loginAttemptService.loginSucceeded(email, clientIp);
         // Check email verified
         if (!user.isEmailVerified()) {
             throw new EmailVerificationException(
@@ -93,7 +118,7 @@ public class AuthServiceImpl implements AuthService {
         // Create refresh token
         var refreshToken = refreshTokenService.createRefreshToken(user.getId());
         // Get access token
-        var accessToken = jwtTokenService.generateToken(user.getId());
+        var accessToken = jwtTokenService.generateToken(user);
         // Return the authentication token in an AuthResponse
         return AuthResponse.builder()
                 .accessToken(accessToken)
@@ -141,8 +166,8 @@ public class AuthServiceImpl implements AuthService {
      * @throws ResourceNotFoundException User not found
      */
     @Override
+    @Transactional
     @RateLimiter(name = "resendEmail", fallbackMethod = "resendVerificationEmailFallback")
-    @Retry(name = "resendEmail")
     public void resendVerificationEmail(String email) {
         // If user don't exist, ResourceNotFoundException will be thrown
         User user = userService.getByEmail(email);
@@ -214,77 +239,12 @@ public class AuthServiceImpl implements AuthService {
      */
     private String buildEmailLink(String name, String link, String subjectEmail, String contentEmail,
                                   String contentLink) {
-        return "<div style=\"font-family:Helvetica,Arial,sans-serif;font-size:16px;margin:0;color:#0b0c0c\">\n" +
-                "\n" +
-                "<span style=\"display:none;font-size:1px;color:#fff;max-height:0\"></span>\n" +
-                "\n" +
-                "  <table role=\"presentation\" width=\"100%\" style=\"border-collapse:collapse;min-width:100%;width:100%!important\" cellpadding=\"0\" cellspacing=\"0\" border=\"0\">\n" +
-                "    <tbody><tr>\n" +
-                "      <td width=\"100%\" height=\"53\" bgcolor=\"#0b0c0c\">\n" +
-                "        \n" +
-                "        <table role=\"presentation\" width=\"100%\" style=\"border-collapse:collapse;max-width:580px\" cellpadding=\"0\" cellspacing=\"0\" border=\"0\" align=\"center\">\n" +
-                "          <tbody><tr>\n" +
-                "            <td width=\"70\" bgcolor=\"#0b0c0c\" valign=\"middle\">\n" +
-                "                <table role=\"presentation\" cellpadding=\"0\" cellspacing=\"0\" border=\"0\" style=\"border-collapse:collapse\">\n" +
-                "                  <tbody><tr>\n" +
-                "                    <td style=\"padding-left:10px\">\n" +
-                "                  \n" +
-                "                    </td>\n" +
-                "                    <td style=\"font-size:28px;line-height:1.315789474;Margin-top:4px;padding-left:10px\">\n" +
-                "                      <span style=\"font-family:Helvetica,Arial,sans-serif;font-weight:700;color:#ffffff;text-decoration:none;vertical-align:top;display:inline-block\">" +
-                subjectEmail + "</span>\n" +
-                "                    </td>\n" +
-                "                  </tr>\n" +
-                "                </tbody></table>\n" +
-                "              </a>\n" +
-                "            </td>\n" +
-                "          </tr>\n" +
-                "        </tbody></table>\n" +
-                "        \n" +
-                "      </td>\n" +
-                "    </tr>\n" +
-                "  </tbody></table>\n" +
-                "  <table role=\"presentation\" class=\"m_-6186904992287805515content\" align=\"center\" cellpadding=\"0\" cellspacing=\"0\" border=\"0\" style=\"border-collapse:collapse;max-width:580px;width:100%!important\" width=\"100%\">\n" +
-                "    <tbody><tr>\n" +
-                "      <td width=\"10\" height=\"10\" valign=\"middle\"></td>\n" +
-                "      <td>\n" +
-                "        \n" +
-                "                <table role=\"presentation\" width=\"100%\" cellpadding=\"0\" cellspacing=\"0\" border=\"0\" style=\"border-collapse:collapse\">\n" +
-                "                  <tbody><tr>\n" +
-                "                    <td bgcolor=\"#1D70B8\" width=\"100%\" height=\"10\"></td>\n" +
-                "                  </tr>\n" +
-                "                </tbody></table>\n" +
-                "        \n" +
-                "      </td>\n" +
-                "      <td width=\"10\" valign=\"middle\" height=\"10\"></td>\n" +
-                "    </tr>\n" +
-                "  </tbody></table>\n" +
-                "\n" +
-                "\n" +
-                "\n" +
-                "  <table role=\"presentation\" class=\"m_-6186904992287805515content\" align=\"center\" cellpadding=\"0\" cellspacing=\"0\" border=\"0\" style=\"border-collapse:collapse;max-width:580px;width:100%!important\" width=\"100%\">\n" +
-                "    <tbody><tr>\n" +
-                "      <td height=\"30\"><br></td>\n" +
-                "    </tr>\n" +
-                "    <tr>\n" +
-                "      <td width=\"10\" valign=\"middle\"><br></td>\n" +
-                "      <td style=\"font-family:Helvetica,Arial,sans-serif;font-size:19px;line-height:1.315789474;max-width:560px\">\n" +
-                "        \n" +
-                "            <p style=\"Margin:0 0 20px 0;font-size:19px;line-height:25px;color:#0b0c0c\">Hi " + name +
-                ",</p><p style=\"Margin:0 0 20px 0;font-size:19px;line-height:25px;color:#0b0c0c\"> " + contentEmail +
-                " </p><blockquote style=\"Margin:0 0 20px 0;border-left:10px solid #b1b4b6;padding:15px 0 0.1px 15px;font-size:19px;line-height:25px\"><p style=\"Margin:0 0 20px 0;font-size:19px;line-height:25px;color:#0b0c0c\"> <a href=\"" +
-                link + "\">" + contentLink +
-                "</a> </p></blockquote>\n Link will expire in 15 minutes. <p>See you soon</p>" +
-                "        \n" +
-                "      </td>\n" +
-                "      <td width=\"10\" valign=\"middle\"><br></td>\n" +
-                "    </tr>\n" +
-                "    <tr>\n" +
-                "      <td height=\"30\"><br></td>\n" +
-                "    </tr>\n" +
-                "  </tbody></table><div class=\"yj6qo\"></div><div class=\"adL\">\n" +
-                "\n" +
-                "</div></div>";
+        return ACTION_LINK_TEMPLATE.render(Map.of(
+                "name", name,
+                "link", link,
+                "subject", subjectEmail,
+                "content", contentEmail,
+                "linkText", contentLink));
     }
 
     /**
@@ -360,23 +320,16 @@ public class AuthServiceImpl implements AuthService {
      * @param refreshToken Refresh token
      * @return TokenResponse
      * @throws ResourceNotFoundException Refresh token not in database
+     * @throws TokenException            Refresh token expired or already used
      */
     @Override
     public TokenResponse refreshToken(String refreshToken) {
-        return refreshTokenService.findByToken(refreshToken)
-                .map(refreshTokenService::verifyExpiration)
-                .map(RefreshToken::getUser)
-                .map(user -> {
-                    String accessToken = jwtTokenService.generateToken(user.getId());
-                    return TokenResponse.builder()
-                            .accessToken(accessToken)
-                            .refreshToken(refreshToken)
-                            .build();
-                }).orElseThrow(() ->
-                        new ResourceNotFoundException(
-                                ResultCode.REFRESH_TOKEN_NOT_IN_DB.message(),
-                                ResultCode.REFRESH_TOKEN_NOT_IN_DB.code()
-                        ));
+        var rotated = refreshTokenService.rotateRefreshToken(refreshToken);
+        String accessToken = jwtTokenService.generateToken(rotated.getUser());
+        return TokenResponse.builder()
+                .accessToken(accessToken)
+                .refreshToken(rotated.getToken())
+                .build();
     }
 
     /**
@@ -388,7 +341,10 @@ public class AuthServiceImpl implements AuthService {
     public void logout(HttpServletRequest request) {
         var token = TokenUtils.getJwtFromAuthorizationHeader(request);
         if (ObjectUtils.hasText(token)) {
-            tokenBlacklistService.addTokenToBlacklist(token);
+            // Only tokens that are still valid need to be revoked
+            jwtTokenService.verifyToken(token).ifPresent(verifiedToken ->
+                    tokenBlacklistService.addTokenToBlacklist(token,
+                            LocalDateTime.ofInstant(verifiedToken.getExpiration().toInstant(), ZoneId.systemDefault())));
             SecurityContextHolder.clearContext();
         }
     }
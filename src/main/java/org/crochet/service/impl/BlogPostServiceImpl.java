@@ -3,6 +3,7 @@ package org.crochet.service.impl;
 import com.turkraft.springfilter.converter.FilterSpecification;
 import lombok.extern.slf4j.Slf4j;
 import org.crochet.enums.ResultCode;
+import org.crochet.enums.SearchType;
 import org.crochet.exception.ResourceNotFoundException;
 import org.crochet.mapper.BlogPostMapper;
 import org.crochet.mapper.FileMapper;
@@ -14,7 +15,6 @@ import org.crochet.payload.request.BlogPostRequest;
 import org.crochet.payload.response.BlogPostResponse;
 import org.crochet.payload.response.PaginationResponse;
 import org.crochet.repository.BlogPostRepository;
-import org.crochet.repository.CommentRepository;
 import org.crochet.service.BlogCategoryService;
 import org.crochet.service.BlogPostService;
 import org.crochet.service.PermissionService;
@@ -43,18 +43,18 @@ public class BlogPostServiceImpl implements BlogPostService {
     private final BlogCategoryService blogCategoryService;
     private final SettingsUtil settingsUtil;
     private final PermissionService permissionService;
-    private final CommentRepository commentRepository;
+    private final SearchIndex searchIndex;
 
     public BlogPostServiceImpl(BlogPostRepository blogPostRepo,
                                BlogCategoryService blogCategoryService,
                                SettingsUtil settingsUtil,
                                PermissionService permissionService,
-                               CommentRepository commentRepository) {
+                               SearchIndex searchIndex) {
         this.blogPostRepo = blogPostRepo;
         this.blogCategoryService = blogCategoryService;
         this.settingsUtil = settingsUtil;
         this.permissionService = permissionService;
-        this.commentRepository = commentRepository;
+        this.searchIndex = searchIndex;
     }
 
     /**
@@ -90,7 +90,8 @@ public class BlogPostServiceImpl implements BlogPostService {
             permissionService.checkUserPermission(blogPost, "update");
             blogPost = BlogPostMapper.INSTANCE.partialUpdate(request, blogPost);
         }
-        blogPostRepo.save(blogPost);
+        blogPost = blogPostRepo.save(blogPost);
+        searchIndex.put(SearchType.BLOG_POST, blogPost.getId(), blogPost.getTitle(), blogPost.getContent());
     }
 
     /**
@@ -122,15 +123,9 @@ public class BlogPostServiceImpl implements BlogPostService {
         } else {
             page = blogPostRepo.findPostWithPageable(pageable);
         }
-        
-        // Thêm số lượng comments cho mỗi bài viết
-        var paginationResponse = PaginationMapper.toPagination(page);
-        for (BlogPostResponse post : paginationResponse.getContents()) {
-            long commentCount = commentRepository.countByBlogPostId(post.getId());
-            post.setCommentCount(commentCount);
-        }
-        
-        return paginationResponse;
+
+        // Số lượng comments được lấy từ cột comment_count trong câu query
+        return PaginationMapper.toPagination(page);
     }
 
     /**
@@ -163,13 +158,7 @@ public class BlogPostServiceImpl implements BlogPostService {
                         ResultCode.MSG_BLOG_NOT_FOUND.message(),
                         ResultCode.MSG_BLOG_NOT_FOUND.code()
                 ));
-        BlogPostResponse response = BlogPostMapper.INSTANCE.toResponse(blogPost);
-        
-        // Thêm số lượng comments
-        long commentCount = commentRepository.countByBlogPostId(id);
-        response.setCommentCount(commentCount);
-        
-        return response;
+        return BlogPostMapper.INSTANCE.toResponse(blogPost);
     }
 
     /**
@@ -198,15 +187,7 @@ public class BlogPostServiceImpl implements BlogPostService {
         ).getValue();
         Sort sort = Sort.by(Sort.Direction.fromString(direction), orderBy);
         Pageable pageable = PageRequest.of(0, Integer.parseInt(limit), sort);
-        List<BlogPostResponse> posts = blogPostRepo.findLimitedNumPosts(pageable);
-        
-        // Thêm số lượng comments cho mỗi bài viết
-        for (BlogPostResponse post : posts) {
-            long commentCount = commentRepository.countByBlogPostId(post.getId());
-            post.setCommentCount(commentCount);
-        }
-        
-        return posts;
+        return blogPostRepo.findLimitedNumPosts(pageable);
     }
 
     /**
@@ -222,6 +203,7 @@ public class BlogPostServiceImpl implements BlogPostService {
         var blogPost = getById(id);
         permissionService.checkUserPermission(blogPost, "delete");
         blogPostRepo.delete(blogPost);
+        searchIndex.remove(SearchType.BLOG_POST, List.of(id));
     }
 
     /**
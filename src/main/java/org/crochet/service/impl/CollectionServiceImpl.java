@@ -32,6 +32,7 @@ public class CollectionServiceImpl implements CollectionService {
     private final FreePatternRepository freePatternRepository;
     private final ColFrepRepo colFrepRepo;
     private final CollectionAvatarService avatarService;
+    private final SavedPatternCache savedPatternCache;
 
     /**
      * Add a free pattern to a collection
@@ -69,6 +70,7 @@ public class CollectionServiceImpl implements CollectionService {
 
         addNewPatternToCollection(collection, freePattern);
         updateCollectionAvatarIfFirst(collection, freePattern);
+        savedPatternCache.add(collection.getUser().getId(), freePatternId);
     }
 
     /**
@@ -152,8 +154,10 @@ public class CollectionServiceImpl implements CollectionService {
                         ResultCode.MSG_COLLECTION_NOT_FOUND.message(),
                         ResultCode.MSG_COLLECTION_NOT_FOUND.code()
                 ));
-        colFrepRepo.removeByFreePattern(freePatternId);
+        // Chỉ xóa pattern khỏi collections của user hiện tại, không ảnh hưởng collections của user khác
+        colFrepRepo.removeByFreePatternsAndUser(Set.of(freePatternId), user.getId());
         avatarService.updateAvatarFromNextPattern(collection);
+        savedPatternCache.remove(user.getId(), freePatternId);
     }
 
     /**
@@ -211,6 +215,7 @@ public class CollectionServiceImpl implements CollectionService {
         }
 
         collectionRepo.delete(col);
+        savedPatternCache.invalidate(user.getId());
     }
 
     /**
@@ -228,13 +233,12 @@ public class CollectionServiceImpl implements CollectionService {
                     ResultCode.MSG_USER_LOGIN_REQUIRED.code()
             );
         }
-        // Sử dụng method tối ưu không cần load entity
-        return colFrepRepo.existsByFreePatternAndUser(freePatternId, user.getId());
+        return getSavedFreePatternIds(user.getId()).contains(freePatternId);
     }
 
     /**
-     * Check if multiple free patterns are in collections for the current user
-     * This method is optimized to avoid N+1 query problem
+     * Check if multiple free patterns are in collections for the current user.
+     * Served from the saved pattern ids of the user, without a query once they are loaded.
      *
      * @param freePatternIds list of free pattern ids to check
      * @return Map of free pattern id to boolean indicating if it's in a collection
@@ -249,36 +253,31 @@ public class CollectionServiceImpl implements CollectionService {
                     ResultCode.MSG_USER_LOGIN_REQUIRED.code()
             );
         }
-        
+
         if (freePatternIds == null || freePatternIds.isEmpty()) {
             return java.util.Collections.emptyMap();
         }
-        
-        // Lấy tất cả collection IDs chứa các patterns này
-        Set<String> collectionIds = colFrepRepo.findCollectionIdsByFreePatternsAndUser(freePatternIds, user.getId());
-        
-        // Tạo map kết quả
+
+        Set<String> savedIds = getSavedFreePatternIds(user.getId());
         java.util.Map<String, Boolean> result = new java.util.HashMap<>();
-        
-        // Nếu có collection chứa patterns, kiểm tra chi tiết từng pattern
-        if (!collectionIds.isEmpty()) {
-            // Lấy tất cả patterns có trong collections
-            List<ColFrep> colFreps = colFrepRepo.findByFreePatternIdsAndUser(freePatternIds, user.getId());
-            
-            // Đánh dấu patterns có trong collections
-            for (ColFrep colFrep : colFreps) {
-                result.put(colFrep.getFreePattern().getId(), true);
-            }
-        }
-        
-        // Đánh dấu patterns không có trong collections
         for (String patternId : freePatternIds) {
-            result.putIfAbsent(patternId, false);
+            result.put(patternId, savedIds.contains(patternId));
         }
-        
         return result;
     }
 
+    /**
+     * Get the ids of the free patterns saved in any collection of a user
+     *
+     * @param userId user id
+     * @return immutable set of free pattern ids
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> getSavedFreePatternIds(String userId) {
+        return savedPatternCache.get(userId, colFrepRepo::findFreePatternIdsByUser);
+    }
+
     /**
      * Add a new pattern to a collection
      *
@@ -1,63 +1,107 @@
 package org.crochet.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.crochet.enums.CommentTarget;
 import org.crochet.enums.ResultCode;
 import org.crochet.event.CommentCreatedEvent;
+import org.crochet.exception.BadRequestException;
 import org.crochet.exception.ResourceNotFoundException;
-import org.crochet.mapper.CommentMapper;
-import org.crochet.model.BlogPost;
 import org.crochet.model.Comment;
-import org.crochet.model.FreePattern;
-import org.crochet.model.Product;
 import org.crochet.model.User;
 import org.crochet.payload.request.CommentRequest;
 import org.crochet.payload.response.CommentResponse;
+import org.crochet.payload.response.CursorResponse;
 import org.crochet.payload.response.PaginationResponse;
+import org.crochet.properties.AppProperties;
 import org.crochet.repository.BlogPostRepository;
+import org.crochet.repository.CommentRepoCustom;
 import org.crochet.repository.CommentRepository;
+import org.crochet.repository.CommentRepository.CommentOwnership;
+import org.crochet.repository.CommentTargetRepository;
 import org.crochet.repository.FreePatternRepository;
+import org.crochet.repository.NotificationRepository;
 import org.crochet.repository.ProductRepository;
 import org.crochet.repository.UserRepository;
+import org.crochet.repository.UserRepository.UserSummary;
 import org.crochet.service.CommentService;
+import org.crochet.util.CommentUtils;
+import org.crochet.util.CursorUtils;
 import org.crochet.util.ObjectUtils;
 import org.crochet.util.SecurityUtils;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class CommentServiceImpl implements CommentService {
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_SNAPSHOT_REPLIES = 20;
+
     private final CommentRepository commentRepo;
+    private final CommentRepoCustom commentRepoCustom;
     private final BlogPostRepository blogPostRepo;
     private final ProductRepository productRepo;
     private final FreePatternRepository freePatternRepo;
     private final UserRepository userRepository;
     private final ApplicationEventPublisher eventPublisher;
+    private final Map<CommentTarget, CommentTargetRepository> targetRepos;
+    private final CommentThreadCache threadCache;
+    private final NotificationRepository notificationRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties.Comment properties;
 
     public CommentServiceImpl(CommentRepository commentRepo,
+                              CommentRepoCustom commentRepoCustom,
                               BlogPostRepository blogPostRepo,
                               ProductRepository productRepo,
                               FreePatternRepository freePatternRepo,
                               UserRepository userRepository,
-                              ApplicationEventPublisher eventPublisher) {
+                              ApplicationEventPublisher eventPublisher,
+                              CommentThreadCache threadCache,
+                              NotificationRepository notificationRepo,
+                              TransactionTemplate transactionTemplate,
+                              AppProperties appProperties) {
         this.commentRepo = commentRepo;
+        this.commentRepoCustom = commentRepoCustom;
         this.blogPostRepo = blogPostRepo;
         this.productRepo = productRepo;
         this.freePatternRepo = freePatternRepo;
         this.userRepository = userRepository;
         this.eventPublisher = eventPublisher;
+        this.targetRepos = new EnumMap<>(Map.of(
+                CommentTarget.BLOG_POST, blogPostRepo,
+                CommentTarget.PRODUCT, productRepo,
+                CommentTarget.FREE_PATTERN, freePatternRepo
+        ));
+        this.threadCache = threadCache;
+        this.notificationRepo = notificationRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = appProperties.getComment();
     }
 
     /**
-     * Tạo hoặc cập nhật một comment
+     * Tạo hoặc cập nhật một comment.
+     * Các kiểm tra tồn tại chỉ đọc id (hoặc một cột), các quan hệ được gán bằng reference,
+     * tên và ảnh của người viết và người được mention được lấy bằng một câu query
+     * và response được tạo từ dữ liệu đã có, không load lại entity sau khi lưu.
      *
      * @param request chứa thông tin của comment
      * @return CommentResponse chứa thông tin của comment đã tạo/cập nhật
@@ -73,76 +117,44 @@ public class CommentServiceImpl implements CommentService {
             );
         }
 
-        // Kiểm tra xem có comment cha không
-        Comment parent = null;
-        if (ObjectUtils.hasText(request.getParentId())) {
-            parent = commentRepo.findById(request.getParentId()).orElseThrow(
-                    () -> new ResourceNotFoundException(
-                            ResultCode.MSG_COMMENT_NOT_FOUND.message(),
-                            ResultCode.MSG_COMMENT_NOT_FOUND.code()
-                    )
-            );
-
-            // Đảm bảo chỉ cho phép độ sâu tối đa là 2 (root comment và replies)
-            if (parent.getParent() != null) {
-                // Nếu parent là reply, thì sử dụng parent của parent
-                parent = parent.getParent();
-            }
-        }
-
-        // Kiểm tra và lấy đối tượng tương ứng (blog post, product hoặc free pattern)
-        BlogPost blog = null;
-        Product product = null;
-        FreePattern freePattern = null;
-
-        // Đếm số lượng các ID không null để đảm bảo chỉ có 1 loại được chỉ định
-        int idCount = 0;
-        if (ObjectUtils.hasText(request.getBlogPostId())) {
-            blog = blogPostRepo.findById(request.getBlogPostId()).orElseThrow(
-                    () -> new ResourceNotFoundException(
-                            ResultCode.MSG_BLOG_NOT_FOUND.message(),
-                            ResultCode.MSG_BLOG_NOT_FOUND.code()
-                    )
-            );
-            idCount++;
-        }
-
-        if (ObjectUtils.hasText(request.getProductId())) {
-            product = productRepo.findById(request.getProductId()).orElseThrow(
-                    () -> new ResourceNotFoundException(
-                            ResultCode.MSG_PRODUCT_NOT_FOUND.message(),
-                            ResultCode.MSG_PRODUCT_NOT_FOUND.code()
-                    )
-            );
-            idCount++;
-        }
-
-        if (ObjectUtils.hasText(request.getFreePatternId())) {
-            freePattern = freePatternRepo.findById(request.getFreePatternId()).orElseThrow(
-                    () -> new ResourceNotFoundException(
-                            ResultCode.MSG_FREE_PATTERN_NOT_FOUND.message(),
-                            ResultCode.MSG_FREE_PATTERN_NOT_FOUND.code()
-                    )
-            );
-            idCount++;
-        }
-
-        // Đảm bảo chỉ có một loại ID được chỉ định
-        if (idCount != 1) {
-            throw new IllegalArgumentException("Phải chỉ định chính xác một trong ba loại ID: blogPostId, productId hoặc freePatternId");
-        }
+        // Đảm bảo chỉ có một loại ID được chỉ định (blog post, product hoặc free pattern)
+        CommentTarget target = resolveTarget(request);
+        String targetId = switch (target) {
+            case BLOG_POST -> request.getBlogPostId();
+            case PRODUCT -> request.getProductId();
+            case FREE_PATTERN -> request.getFreePatternId();
+        };
 
         // Tạo mới hoặc cập nhật comment
         Comment comment;
         String id = request.getId();
-        if (!ObjectUtils.hasText(id)) {
+        boolean isNew = !ObjectUtils.hasText(id);
+        if (isNew) {
+            // Kiểm tra comment cha, chỉ đọc id của nó và của comment ông
+            String parentId = null;
+            if (ObjectUtils.hasText(request.getParentId())) {
+                CommentOwnership parent = commentRepo.findOwnershipById(request.getParentId()).orElseThrow(
+                        () -> new ResourceNotFoundException(
+                                ResultCode.MSG_COMMENT_NOT_FOUND.message(),
+                                ResultCode.MSG_COMMENT_NOT_FOUND.code()
+                        )
+                );
+                // Đảm bảo chỉ cho phép độ sâu tối đa là 2 (root comment và replies):
+                // nếu parent là reply, thì sử dụng parent của parent
+                parentId = parent.getParentId() != null ? parent.getParentId() : parent.getId();
+            }
+
+            requireTarget(target, targetId);
             comment = Comment.builder()
-                    .blogPost(blog)
-                    .product(product)
-                    .freePattern(freePattern)
-                    .user(user)
-                    .parent(parent)
+                    .user(userRepository.getReferenceById(user.getId()))
+                    .parent(parentId != null ? commentRepo.getReferenceById(parentId) : null)
                     .build();
+            switch (target) {
+                case BLOG_POST -> comment.setBlogPost(blogPostRepo.getReferenceById(targetId));
+                case PRODUCT -> comment.setProduct(productRepo.getReferenceById(targetId));
+                case FREE_PATTERN -> comment.setFreePattern(freePatternRepo.getReferenceById(targetId));
+            }
+            comment.setCreatedDate(LocalDateTime.now());
         } else {
             comment = commentRepo.findById(id).orElseThrow(
                     () -> new ResourceNotFoundException(
@@ -153,34 +165,97 @@ public class CommentServiceImpl implements CommentService {
         }
 
         comment.setContent(request.getContent());
-        comment.setCreatedDate(LocalDateTime.now());
-
-        // Xử lý mention
         if (ObjectUtils.hasText(request.getMentionedUserId())) {
-            // Kiểm tra người dùng được mention có tồn tại không
-            userRepository.findById(request.getMentionedUserId()).orElseThrow(
-                    () -> new ResourceNotFoundException(
-                            ResultCode.MSG_USER_NOT_FOUND.message(),
-                            ResultCode.MSG_USER_NOT_FOUND.code()
-                    )
-            );
             comment.setMentionedUserId(request.getMentionedUserId());
         }
 
+        // Principal chỉ có id và role: lấy tên, ảnh của người viết và tên người được mention trong một câu query.
+        // Id của người viết được đọc từ reference, không load entity User
+        String authorId = isNew ? user.getId() : comment.getUser().getId();
+        String mentionedUserId = comment.getMentionedUserId();
+        Set<String> userIds = new HashSet<>();
+        userIds.add(authorId);
+        if (ObjectUtils.hasText(mentionedUserId)) {
+            userIds.add(mentionedUserId);
+        }
+        Map<String, UserSummary> users = userRepository.findSummariesByIds(userIds)
+                .stream()
+                .collect(Collectors.toMap(UserSummary::getId, Function.identity()));
+        UserSummary author = users.get(authorId);
+        if (author == null) {
+            throw new ResourceNotFoundException(
+                    ResultCode.MSG_USER_NOT_FOUND.message(),
+                    ResultCode.MSG_USER_NOT_FOUND.code()
+            );
+        }
+        // Người được mention mới phải tồn tại, mention cũ của comment được cập nhật thì giữ nguyên
+        UserSummary mentioned = ObjectUtils.hasText(mentionedUserId) ? users.get(mentionedUserId) : null;
+        if (mentioned == null && ObjectUtils.hasText(request.getMentionedUserId())) {
+            throw new ResourceNotFoundException(
+                    ResultCode.MSG_USER_NOT_FOUND.message(),
+                    ResultCode.MSG_USER_NOT_FOUND.code()
+            );
+        }
+
         comment = commentRepo.save(comment);
-        // Gửi sự kiện khi comment được tạo
-        eventPublisher.publishEvent(new CommentCreatedEvent(comment));
-        CommentResponse response = CommentMapper.INSTANCE.toResponse(comment);
-
-        // Thêm thông tin về người dùng được mention
-        if (ObjectUtils.hasText(comment.getMentionedUserId())) {
-            userRepository.findById(comment.getMentionedUserId())
-                    .ifPresent(mentionedUser -> response.setMentionedUsername(mentionedUser.getName()));
+
+        // Cập nhật số lượng replies và comments khi tạo comment mới
+        if (isNew) {
+            adjustCounters(comment, 1);
         }
 
+        // Gửi sự kiện khi comment được tạo, thông báo được tạo sau khi transaction commit.
+        // Tên người gửi lấy từ database vì principal không có tên
+        if (isNew) {
+            eventPublisher.publishEvent(CommentCreatedEvent.builder()
+                    .commentId(comment.getId())
+                    .senderId(user.getId())
+                    .senderName(author.getName())
+                    .target(target)
+                    .targetId(targetId)
+                    .mentionedUserId(comment.getMentionedUserId())
+                    .build());
+        }
+
+        CommentResponse response = new CommentResponse(
+                comment.getId(),
+                comment.getContent(),
+                comment.getCreatedDate(),
+                author.getId(),
+                author.getName(),
+                author.getImageUrl(),
+                comment.getParent() != null ? comment.getParent().getId() : null,
+                comment.getReplyCount(),
+                comment.getMentionedUserId(),
+                mentioned != null ? mentioned.getName() : null
+        );
+
+        // Cập nhật cache của thread sau khi commit
+        updateThreadCache(comment, response, isNew);
         return response;
     }
 
+    private CommentTarget resolveTarget(CommentRequest request) {
+        CommentTarget target = null;
+        int idCount = 0;
+        if (ObjectUtils.hasText(request.getBlogPostId())) {
+            target = CommentTarget.BLOG_POST;
+            idCount++;
+        }
+        if (ObjectUtils.hasText(request.getProductId())) {
+            target = CommentTarget.PRODUCT;
+            idCount++;
+        }
+        if (ObjectUtils.hasText(request.getFreePatternId())) {
+            target = CommentTarget.FREE_PATTERN;
+            idCount++;
+        }
+        if (idCount != 1) {
+            throw new IllegalArgumentException("Phải chỉ định chính xác một trong ba loại ID: blogPostId, productId hoặc freePatternId");
+        }
+        return target;
+    }
+
     /**
      * Lấy danh sách root comments cho một bài viết với phân trang
      *
@@ -192,42 +267,7 @@ public class CommentServiceImpl implements CommentService {
     @Transactional(readOnly = true)
     @Override
     public PaginationResponse<CommentResponse> getRootCommentsByBlogPost(String blogPostId, int pageNo, int pageSize) {
-        // Kiểm tra xem bài viết có tồn tại không
-        blogPostRepo.findById(blogPostId).orElseThrow(
-                () -> new ResourceNotFoundException(
-                        ResultCode.MSG_BLOG_NOT_FOUND.message(),
-                        ResultCode.MSG_BLOG_NOT_FOUND.code()
-                )
-        );
-
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
-        Page<Comment> commentPage = commentRepo.findByBlogPostIdAndParentIsNullOrderByCreatedDateDesc(blogPostId, pageable);
-        List<CommentResponse> rootComments = new ArrayList<>();
-
-        for (Comment comment : commentPage.getContent()) {
-            CommentResponse response = CommentMapper.INSTANCE.toResponse(comment);
-
-            // Đếm số lượng replies cho comment này
-            long replyCount = commentRepo.countByParentId(comment.getId());
-            response.setReplyCount(replyCount);
-
-            // Thêm thông tin về người dùng được mention
-            if (ObjectUtils.hasText(comment.getMentionedUserId())) {
-                userRepository.findById(comment.getMentionedUserId())
-                        .ifPresent(mentionedUser -> response.setMentionedUsername(mentionedUser.getName()));
-            }
-
-            rootComments.add(response);
-        }
-
-        return PaginationResponse.<CommentResponse>builder()
-                .contents(rootComments)
-                .pageNo(pageNo)
-                .pageSize(pageSize)
-                .totalElements(commentPage.getTotalElements())
-                .totalPages(commentPage.getTotalPages())
-                .last(commentPage.isLast())
-                .build();
+        return loadPage(CommentTarget.BLOG_POST, blogPostId, true, pageNo, pageSize);
     }
 
     /**
@@ -238,40 +278,10 @@ public class CommentServiceImpl implements CommentService {
      * @param pageSize   Số lượng comments mỗi trang
      * @return PaginationResponse chứa danh sách comments và thông tin phân trang
      */
+    @Transactional(readOnly = true)
     @Override
     public PaginationResponse<CommentResponse> getCommentsByBlogPost(String blogPostId, int pageNo, int pageSize) {
-        // Kiểm tra xem bài viết có tồn tại không
-        blogPostRepo.findById(blogPostId).orElseThrow(
-                () -> new ResourceNotFoundException(
-                        ResultCode.MSG_BLOG_NOT_FOUND.message(),
-                        ResultCode.MSG_BLOG_NOT_FOUND.code()
-                )
-        );
-
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
-        Page<Comment> commentPage = commentRepo.findByBlogPostIdOrderByCreatedDateDesc(blogPostId, pageable);
-        List<CommentResponse> comments = new ArrayList<>();
-
-        for (Comment comment : commentPage.getContent()) {
-            CommentResponse response = CommentMapper.INSTANCE.toResponse(comment);
-
-            // Thêm thông tin về người dùng được mention
-            if (ObjectUtils.hasText(comment.getMentionedUserId())) {
-                userRepository.findById(comment.getMentionedUserId())
-                        .ifPresent(mentionedUser -> response.setMentionedUsername(mentionedUser.getName()));
-            }
-
-            comments.add(response);
-        }
-
-        return PaginationResponse.<CommentResponse>builder()
-                .contents(comments)
-                .pageNo(pageNo)
-                .pageSize(pageSize)
-                .totalElements(commentPage.getTotalElements())
-                .totalPages(commentPage.getTotalPages())
-                .last(commentPage.isLast())
-                .build();
+        return loadPage(CommentTarget.BLOG_POST, blogPostId, false, pageNo, pageSize);
     }
 
     /**
@@ -285,42 +295,7 @@ public class CommentServiceImpl implements CommentService {
     @Transactional(readOnly = true)
     @Override
     public PaginationResponse<CommentResponse> getRootCommentsByProduct(String productId, int pageNo, int pageSize) {
-        // Kiểm tra xem product có tồn tại không
-        productRepo.findById(productId).orElseThrow(
-                () -> new ResourceNotFoundException(
-                        ResultCode.MSG_PRODUCT_NOT_FOUND.message(),
-                        ResultCode.MSG_PRODUCT_NOT_FOUND.code()
-                )
-        );
-
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
-        Page<Comment> commentPage = commentRepo.findByProductIdAndParentIsNullOrderByCreatedDateDesc(productId, pageable);
-        List<CommentResponse> rootComments = new ArrayList<>();
-
-        for (Comment comment : commentPage.getContent()) {
-            CommentResponse response = CommentMapper.INSTANCE.toResponse(comment);
-
-            // Đếm số lượng replies cho comment này
-            long replyCount = commentRepo.countByParentId(comment.getId());
-            response.setReplyCount(replyCount);
-
-            // Thêm thông tin về người dùng được mention
-            if (ObjectUtils.hasText(comment.getMentionedUserId())) {
-                userRepository.findById(comment.getMentionedUserId())
-                        .ifPresent(mentionedUser -> response.setMentionedUsername(mentionedUser.getName()));
-            }
-
-            rootComments.add(response);
-        }
-
-        return PaginationResponse.<CommentResponse>builder()
-                .contents(rootComments)
-                .pageNo(pageNo)
-                .pageSize(pageSize)
-                .totalElements(commentPage.getTotalElements())
-                .totalPages(commentPage.getTotalPages())
-                .last(commentPage.isLast())
-                .build();
+        return loadPage(CommentTarget.PRODUCT, productId, true, pageNo, pageSize);
     }
 
     /**
@@ -331,40 +306,10 @@ public class CommentServiceImpl implements CommentService {
      * @param pageSize  Số lượng comments mỗi trang
      * @return PaginationResponse chứa danh sách comments và thông tin phân trang
      */
+    @Transactional(readOnly = true)
     @Override
     public PaginationResponse<CommentResponse> getCommentsByProduct(String productId, int pageNo, int pageSize) {
-        // Kiểm tra xem product có tồn tại không
-        productRepo.findById(productId).orElseThrow(
-                () -> new ResourceNotFoundException(
-                        ResultCode.MSG_PRODUCT_NOT_FOUND.message(),
-                        ResultCode.MSG_PRODUCT_NOT_FOUND.code()
-                )
-        );
-
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
-        Page<Comment> commentPage = commentRepo.findByProductIdOrderByCreatedDateDesc(productId, pageable);
-        List<CommentResponse> comments = new ArrayList<>();
-
-        for (Comment comment : commentPage.getContent()) {
-            CommentResponse response = CommentMapper.INSTANCE.toResponse(comment);
-
-            // Thêm thông tin về người dùng được mention
-            if (ObjectUtils.hasText(comment.getMentionedUserId())) {
-                userRepository.findById(comment.getMentionedUserId())
-                        .ifPresent(mentionedUser -> response.setMentionedUsername(mentionedUser.getName()));
-            }
-
-            comments.add(response);
-        }
-
-        return PaginationResponse.<CommentResponse>builder()
-                .contents(comments)
-                .pageNo(pageNo)
-                .pageSize(pageSize)
-                .totalElements(commentPage.getTotalElements())
-                .totalPages(commentPage.getTotalPages())
-                .last(commentPage.isLast())
-                .build();
+        return loadPage(CommentTarget.PRODUCT, productId, false, pageNo, pageSize);
     }
 
     /**
@@ -378,42 +323,7 @@ public class CommentServiceImpl implements CommentService {
     @Transactional(readOnly = true)
     @Override
     public PaginationResponse<CommentResponse> getRootCommentsByFreePattern(String freePatternId, int pageNo, int pageSize) {
-        // Kiểm tra xem free pattern có tồn tại không
-        freePatternRepo.findById(freePatternId).orElseThrow(
-                () -> new ResourceNotFoundException(
-                        ResultCode.MSG_FREE_PATTERN_NOT_FOUND.message(),
-                        ResultCode.MSG_FREE_PATTERN_NOT_FOUND.code()
-                )
-        );
-
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
-        Page<Comment> commentPage = commentRepo.findByFreePatternIdAndParentIsNullOrderByCreatedDateDesc(freePatternId, pageable);
-        List<CommentResponse> rootComments = new ArrayList<>();
-
-        for (Comment comment : commentPage.getContent()) {
-            CommentResponse response = CommentMapper.INSTANCE.toResponse(comment);
-
-            // Đếm số lượng replies cho comment này
-            long replyCount = commentRepo.countByParentId(comment.getId());
-            response.setReplyCount(replyCount);
-
-            // Thêm thông tin về người dùng được mention
-            if (ObjectUtils.hasText(comment.getMentionedUserId())) {
-                userRepository.findById(comment.getMentionedUserId())
-                        .ifPresent(mentionedUser -> response.setMentionedUsername(mentionedUser.getName()));
-            }
-
-            rootComments.add(response);
-        }
-
-        return PaginationResponse.<CommentResponse>builder()
-                .contents(rootComments)
-                .pageNo(pageNo)
-                .pageSize(pageSize)
-                .totalElements(commentPage.getTotalElements())
-                .totalPages(commentPage.getTotalPages())
-                .last(commentPage.isLast())
-                .build();
+        return loadPage(CommentTarget.FREE_PATTERN, freePatternId, true, pageNo, pageSize);
     }
 
     /**
@@ -424,34 +334,227 @@ public class CommentServiceImpl implements CommentService {
      * @param pageSize      Số lượng comments mỗi trang
      * @return PaginationResponse chứa danh sách comments và thông tin phân trang
      */
+    @Transactional(readOnly = true)
     @Override
     public PaginationResponse<CommentResponse> getCommentsByFreePattern(String freePatternId, int pageNo, int pageSize) {
-        // Kiểm tra xem free pattern có tồn tại không
-        freePatternRepo.findById(freePatternId).orElseThrow(
-                () -> new ResourceNotFoundException(
-                        ResultCode.MSG_FREE_PATTERN_NOT_FOUND.message(),
-                        ResultCode.MSG_FREE_PATTERN_NOT_FOUND.code()
-                )
-        );
+        return loadPage(CommentTarget.FREE_PATTERN, freePatternId, false, pageNo, pageSize);
+    }
 
+    /**
+     * Lấy danh sách replies cho một comment cụ thể
+     *
+     * @param commentId ID của comment cần lấy replies
+     * @return Danh sách các replies
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<CommentResponse> getRepliesByCommentId(String commentId) {
+        List<CommentResponse> replies = commentRepo.findRepliesByParentId(commentId);
+        // Chỉ kiểm tra comment có tồn tại không khi không có reply nào
+        if (replies.isEmpty() && !commentRepo.existsById(commentId)) {
+            throw new ResourceNotFoundException(
+                    ResultCode.MSG_COMMENT_NOT_FOUND.message(),
+                    ResultCode.MSG_COMMENT_NOT_FOUND.code()
+            );
+        }
+        return replies;
+    }
+
+    /**
+     * Lấy comments cho một bài viết theo cursor (keyset trên createdDate, id)
+     *
+     * @param blogPostId ID của bài viết cần lấy comments
+     * @param rootOnly   Chỉ lấy root comments
+     * @param cursor     Cursor trả về từ trang trước, null cho trang đầu tiên
+     * @param limit      Số lượng comments mỗi trang
+     * @return CursorResponse chứa danh sách comments và cursor của trang tiếp theo
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public CursorResponse<CommentResponse> getCommentsByBlogPostCursor(String blogPostId, boolean rootOnly,
+                                                                       String cursor, int limit) {
+        return loadCursorPage(CommentTarget.BLOG_POST, blogPostId, rootOnly, cursor, limit);
+    }
+
+    /**
+     * Lấy comments cho một product theo cursor (keyset trên createdDate, id)
+     *
+     * @param productId ID của product cần lấy comments
+     * @param rootOnly  Chỉ lấy root comments
+     * @param cursor    Cursor trả về từ trang trước, null cho trang đầu tiên
+     * @param limit     Số lượng comments mỗi trang
+     * @return CursorResponse chứa danh sách comments và cursor của trang tiếp theo
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public CursorResponse<CommentResponse> getCommentsByProductCursor(String productId, boolean rootOnly,
+                                                                      String cursor, int limit) {
+        return loadCursorPage(CommentTarget.PRODUCT, productId, rootOnly, cursor, limit);
+    }
+
+    /**
+     * Lấy comments cho một free pattern theo cursor (keyset trên createdDate, id)
+     *
+     * @param freePatternId ID của free pattern cần lấy comments
+     * @param rootOnly      Chỉ lấy root comments
+     * @param cursor        Cursor trả về từ trang trước, null cho trang đầu tiên
+     * @param limit         Số lượng comments mỗi trang
+     * @return CursorResponse chứa danh sách comments và cursor của trang tiếp theo
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public CursorResponse<CommentResponse> getCommentsByFreePatternCursor(String freePatternId, boolean rootOnly,
+                                                                          String cursor, int limit) {
+        return loadCursorPage(CommentTarget.FREE_PATTERN, freePatternId, rootOnly, cursor, limit);
+    }
+
+    /**
+     * Lấy một trang root comments kèm các replies đầu tiên của mỗi root comment.
+     * Root comments và replies được lấy bằng hai câu query, dùng chung cho mọi loại đối tượng.
+     *
+     * @param target     Loại đối tượng (blog, product, free-pattern)
+     * @param targetId   ID của đối tượng cần lấy comments
+     * @param cursor     Cursor trả về từ trang trước, null cho trang đầu tiên
+     * @param limit      Số lượng root comments mỗi trang
+     * @param replyLimit Số lượng replies tối đa của mỗi root comment
+     * @return CursorResponse chứa root comments (kèm replies) và cursor của trang tiếp theo
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public CursorResponse<CommentResponse> getThreadSnapshot(String target, String targetId, String cursor,
+                                                             int limit, int replyLimit) {
+        CommentTarget commentTarget = CommentTarget.fromPath(target);
+        if (commentTarget == null) {
+            throw new BadRequestException(
+                    ResultCode.MSG_INVALID_COMMENT_TARGET.message(),
+                    ResultCode.MSG_INVALID_COMMENT_TARGET.code()
+            );
+        }
+
+        CursorResponse<CommentResponse> page = loadCursorPage(commentTarget, targetId, true, cursor, limit);
+        List<String> parentIds = page.getContents().stream()
+                .filter(root -> root.getReplyCount() > 0)
+                .map(CommentResponse::getId)
+                .toList();
+        int perParent = Math.max(0, Math.min(replyLimit, MAX_SNAPSHOT_REPLIES));
+        Map<String, List<CommentResponse>> replies = commentRepoCustom.findFirstReplies(parentIds, perParent)
+                .stream()
+                .collect(Collectors.groupingBy(CommentResponse::getParentId));
+        page.getContents().forEach(root -> root.setReplies(replies.getOrDefault(root.getId(), List.of())));
+        return page;
+    }
+
+    /**
+     * Lấy một trang comments theo offset cho bất kỳ loại đối tượng nào
+     */
+    private PaginationResponse<CommentResponse> loadPage(CommentTarget target, String targetId, boolean rootOnly,
+                                                         int pageNo, int pageSize) {
         Pageable pageable = PageRequest.of(pageNo, pageSize);
-        Page<Comment> commentPage = commentRepo.findByFreePatternIdOrderByCreatedDateDesc(freePatternId, pageable);
-        List<CommentResponse> comments = new ArrayList<>();
+        // Các trang đầu của root comments được lấy từ cache
+        if (rootOnly && pageable.getOffset() + pageSize <= threadCache.getRows()) {
+            var snapshot = threadCache.get(target, targetId, () -> loadThreadSnapshot(target, targetId));
+            int offset = (int) pageable.getOffset();
+            Page<CommentResponse> cachedPage = new PageImpl<>(snapshot.slice(offset, offset + pageSize),
+                    pageable, snapshot.getRootCount());
+            return toPaginationResponse(cachedPage, pageNo, pageSize);
+        }
+
+        List<CommentResponse> contents = commentRepoCustom.findPage(target, targetId, rootOnly,
+                pageable.getOffset(), pageSize);
+        // Chỉ kiểm tra đối tượng có tồn tại không khi trang rỗng
+        if (contents.isEmpty()) {
+            requireTarget(target, targetId);
+        }
+        Page<CommentResponse> commentPage = PageableExecutionUtils.getPage(contents, pageable,
+                () -> commentRepoCustom.count(target, targetId, rootOnly));
+        return toPaginationResponse(commentPage, pageNo, pageSize);
+    }
 
-        for (Comment comment : commentPage.getContent()) {
-            CommentResponse response = CommentMapper.INSTANCE.toResponse(comment);
+    /**
+     * Lấy một trang comments theo cursor cho bất kỳ loại đối tượng nào
+     */
+    private CursorResponse<CommentResponse> loadCursorPage(CommentTarget target, String targetId, boolean rootOnly,
+                                                           String cursor, int limit) {
+        int size = cursorPageSize(limit);
+        // Trang đầu tiên của root comments được lấy từ cache
+        if (rootOnly && !ObjectUtils.hasText(cursor) && size + 1 <= threadCache.getRows()) {
+            var snapshot = threadCache.get(target, targetId, () -> loadThreadSnapshot(target, targetId));
+            return toCursorResponse(snapshot.slice(0, size + 1), size);
+        }
+
+        CursorUtils.Cursor after = CursorUtils.decode(cursor);
+        List<CommentResponse> rows = commentRepoCustom.findPageAfter(target, targetId, rootOnly,
+                after.getCreatedDate(), after.getId(), size + 1);
+        // Chỉ kiểm tra đối tượng có tồn tại không khi trang rỗng
+        if (rows.isEmpty()) {
+            requireTarget(target, targetId);
+        }
+        return toCursorResponse(rows, size);
+    }
 
-            // Thêm thông tin về người dùng được mention
-            if (ObjectUtils.hasText(comment.getMentionedUserId())) {
-                userRepository.findById(comment.getMentionedUserId())
-                        .ifPresent(mentionedUser -> response.setMentionedUsername(mentionedUser.getName()));
+    /**
+     * Lấy các root comments mới nhất của một đối tượng để lưu vào cache
+     */
+    private CommentThreadCache.Snapshot loadThreadSnapshot(CommentTarget target, String targetId) {
+        int rows = threadCache.getRows();
+        List<CommentResponse> roots = commentRepoCustom.findPage(target, targetId, true, 0, rows);
+        if (roots.isEmpty()) {
+            requireTarget(target, targetId);
+        }
+        long rootCount = roots.size() < rows ? roots.size() : commentRepoCustom.count(target, targetId, true);
+        return new CommentThreadCache.Snapshot(roots, rootCount);
+    }
+
+    /**
+     * Cập nhật cache của thread chứa comment vừa được tạo hoặc cập nhật
+     */
+    private void updateThreadCache(Comment comment, CommentResponse response, boolean isNew) {
+        CommentTarget target = CommentUtils.getTarget(comment);
+        String targetId = CommentUtils.getTargetId(comment);
+        if (comment.getParent() != null) {
+            if (isNew) {
+                threadCache.adjustReplyCount(target, targetId, comment.getParent().getId(), 1);
             }
+        } else if (isNew) {
+            threadCache.addRoot(target, targetId, response);
+        } else {
+            threadCache.replaceRoot(target, targetId, response);
+        }
+    }
+
+    private void requireTarget(CommentTarget target, String targetId) {
+        if (targetRepos.get(target).getCommentCount(targetId).isEmpty()) {
+            throw new ResourceNotFoundException(
+                    target.getNotFound().message(),
+                    target.getNotFound().code()
+            );
+        }
+    }
+
+    /**
+     * Tăng/giảm số lượng replies của comment cha và số lượng comments của đối tượng được comment
+     *
+     * @param comment Comment được tạo hoặc xóa
+     * @param delta   Số lượng thay đổi
+     */
+    private void adjustCounters(Comment comment, int delta) {
+        if (comment.getParent() != null) {
+            commentRepo.adjustReplyCount(comment.getParent().getId(), delta);
+        }
+        adjustTargetCommentCount(CommentUtils.getTarget(comment), CommentUtils.getTargetId(comment), delta);
+    }
 
-            comments.add(response);
+    private void adjustTargetCommentCount(CommentTarget target, String targetId, int delta) {
+        if (target != null && delta != 0) {
+            targetRepos.get(target).adjustCommentCount(targetId, delta);
         }
+    }
 
+    private PaginationResponse<CommentResponse> toPaginationResponse(Page<CommentResponse> commentPage,
+                                                                      int pageNo,
+                                                                      int pageSize) {
         return PaginationResponse.<CommentResponse>builder()
-                .contents(comments)
+                .contents(commentPage.getContent())
                 .pageNo(pageNo)
                 .pageSize(pageSize)
                 .totalElements(commentPage.getTotalElements())
@@ -460,39 +563,24 @@ public class CommentServiceImpl implements CommentService {
                 .build();
     }
 
-    /**
-     * Lấy danh sách replies cho một comment cụ thể
-     *
-     * @param commentId ID của comment cần lấy replies
-     * @return Danh sách các replies
-     */
-    @Transactional(readOnly = true)
-    @Override
-    public List<CommentResponse> getRepliesByCommentId(String commentId) {
-        // Kiểm tra xem comment có tồn tại không
-        commentRepo.findById(commentId).orElseThrow(
-                () -> new ResourceNotFoundException(
-                        ResultCode.MSG_COMMENT_NOT_FOUND.message(),
-                        ResultCode.MSG_COMMENT_NOT_FOUND.code()
-                )
-        );
-
-        List<Comment> replies = commentRepo.findByParentIdOrderByCreatedDateAsc(commentId);
-        List<CommentResponse> responses = new ArrayList<>();
-
-        for (Comment reply : replies) {
-            CommentResponse response = CommentMapper.INSTANCE.toResponse(reply);
-
-            // Thêm thông tin về người dùng được mention
-            if (ObjectUtils.hasText(reply.getMentionedUserId())) {
-                userRepository.findById(reply.getMentionedUserId())
-                        .ifPresent(mentionedUser -> response.setMentionedUsername(mentionedUser.getName()));
-            }
+    private int cursorPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_CURSOR_PAGE_SIZE));
+    }
 
-            responses.add(response);
+    // Lấy thêm một dòng để biết còn trang tiếp theo hay không, thay cho câu query COUNT
+    private CursorResponse<CommentResponse> toCursorResponse(List<CommentResponse> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<CommentResponse> contents = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            CommentResponse lastRow = contents.getLast();
+            nextCursor = CursorUtils.encode(lastRow.getCreatedDate(), lastRow.getId());
         }
-
-        return responses;
+        return CursorResponse.<CommentResponse>builder()
+                .contents(contents)
+                .nextCursor(nextCursor)
+                .last(!hasNext)
+                .build();
     }
 
     /**
@@ -504,7 +592,7 @@ public class CommentServiceImpl implements CommentService {
     @Override
     public void deleteComment(String commentId) {
         User currentUser = SecurityUtils.getCurrentUser();
-        Comment comment = commentRepo.findById(commentId).orElseThrow(
+        CommentOwnership comment = commentRepo.findOwnershipById(commentId).orElseThrow(
                 () -> new ResourceNotFoundException(
                         ResultCode.MSG_COMMENT_NOT_FOUND.message(),
                         ResultCode.MSG_COMMENT_NOT_FOUND.code()
@@ -512,7 +600,7 @@ public class CommentServiceImpl implements CommentService {
         );
 
         // Chỉ cho phép người dùng xóa comment của chính họ hoặc admin
-        if (currentUser == null || (!currentUser.getId().equals(comment.getUser().getId())
+        if (currentUser == null || (!currentUser.getId().equals(comment.getUserId())
                 && !SecurityUtils.hasRole("ROLE_ADMIN"))) {
             throw new ResourceNotFoundException(
                     ResultCode.MSG_FORBIDDEN.message(),
@@ -520,13 +608,108 @@ public class CommentServiceImpl implements CommentService {
             );
         }
 
-        // Nếu là root comment, xóa cả replies
-        if (comment.getParent() == null) {
-            List<Comment> replies = commentRepo.findByParentIdOrderByCreatedDateAsc(commentId);
-            commentRepo.deleteAll(replies);
+        CommentTarget target = comment.getTarget();
+        String targetId = comment.getTargetId();
+        List<String> ids = List.of(commentId);
+        notificationRepo.deleteByCommentTree(ids);
+
+        // Nếu là root comment, xóa cả replies bằng một câu lệnh
+        if (comment.getParentId() == null) {
+            int replies = commentRepo.deleteByParentIds(ids);
+            commentRepo.deleteByIds(ids);
+            adjustTargetCommentCount(target, targetId, -(replies + 1));
+            threadCache.invalidate(target, targetId);
+        } else {
+            commentRepo.deleteByIds(ids);
+            commentRepo.adjustReplyCount(comment.getParentId(), -1);
+            adjustTargetCommentCount(target, targetId, -1);
+            threadCache.adjustReplyCount(target, targetId, comment.getParentId(), -1);
         }
+    }
 
-        commentRepo.delete(comment);
+    /**
+     * Xóa tất cả comments của một người dùng (kèm replies của các root comments đó).
+     * Mỗi chunk được xóa trong một transaction riêng để không giữ lock quá lâu.
+     *
+     * @param userId ID của người dùng
+     * @return Số lượng comments của người dùng đã bị xóa
+     */
+    @Override
+    public long deleteCommentsByUser(String userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException(
+                    ResultCode.MSG_USER_NOT_FOUND.message(),
+                    ResultCode.MSG_USER_NOT_FOUND.code()
+            );
+        }
+
+        long total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> deleteCommentChunk(userId));
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            total += deleted;
+        }
+        log.info("Deleted {} comments of user {}", total, userId);
+        return total;
+    }
+
+    private int deleteCommentChunk(String userId) {
+        List<CommentOwnership> chunk = commentRepo.findOwnershipByUserId(userId,
+                PageRequest.of(0, properties.getModerationBatchSize()));
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> rootIds = chunk.stream()
+                .filter(c -> c.getParentId() == null)
+                .map(CommentOwnership::getId)
+                .collect(Collectors.toSet());
+        Map<String, Integer> replyDeltas = new HashMap<>();
+        // Nhóm theo đối tượng được comment để trừ đúng số dòng thực sự bị xóa của mỗi đối tượng
+        Map<CommentTarget, Map<String, List<CommentOwnership>>> byTarget = new EnumMap<>(CommentTarget.class);
+        List<CommentOwnership> withoutTarget = new ArrayList<>();
+        for (CommentOwnership comment : chunk) {
+            if (comment.getParentId() != null && !rootIds.contains(comment.getParentId())) {
+                replyDeltas.merge(comment.getParentId(), -1, Integer::sum);
+            }
+            if (comment.getTarget() == null) {
+                withoutTarget.add(comment);
+                continue;
+            }
+            byTarget.computeIfAbsent(comment.getTarget(), t -> new HashMap<>())
+                    .computeIfAbsent(comment.getTargetId(), t -> new ArrayList<>())
+                    .add(comment);
+        }
+
+        List<String> ids = chunk.stream().map(CommentOwnership::getId).toList();
+        notificationRepo.deleteByCommentTree(ids);
+        byTarget.forEach((target, groups) -> groups.forEach((targetId, comments) -> {
+            int deleted = deleteComments(comments, rootIds);
+            adjustTargetCommentCount(target, targetId, -deleted);
+            threadCache.invalidate(target, targetId);
+        }));
+        if (!withoutTarget.isEmpty()) {
+            deleteComments(withoutTarget, rootIds);
+        }
+        replyDeltas.forEach(commentRepo::adjustReplyCount);
+        return chunk.size();
+    }
+
+    /**
+     * Xóa các comments kèm replies của các root comments trong số đó
+     *
+     * @return Số dòng thực sự bị xóa, không dựa vào reply_count đã lưu
+     */
+    private int deleteComments(List<CommentOwnership> comments, Set<String> rootIds) {
+        List<String> roots = comments.stream()
+                .map(CommentOwnership::getId)
+                .filter(rootIds::contains)
+                .toList();
+        int deleted = roots.isEmpty() ? 0 : commentRepo.deleteByParentIds(roots);
+        // Replies của các root comments ở trên đã bị xóa, không bị đếm lại ở đây
+        return deleted + commentRepo.deleteByIds(comments.stream().map(CommentOwnership::getId).toList());
     }
 
     /**
@@ -537,7 +720,7 @@ public class CommentServiceImpl implements CommentService {
      */
     @Override
     public long countRootCommentsByBlogPost(String blogPostId) {
-        return commentRepo.countByBlogPostIdAndParentIsNull(blogPostId);
+        return commentRepoCustom.count(CommentTarget.BLOG_POST, blogPostId, true);
     }
 
     /**
@@ -548,7 +731,7 @@ public class CommentServiceImpl implements CommentService {
      */
     @Override
     public long countCommentsByBlogPost(String blogPostId) {
-        return commentRepo.countByBlogPostId(blogPostId);
+        return targetRepos.get(CommentTarget.BLOG_POST).getCommentCount(blogPostId).orElse(0);
     }
 
     /**
@@ -559,7 +742,7 @@ public class CommentServiceImpl implements CommentService {
      */
     @Override
     public long countRootCommentsByProduct(String productId) {
-        return commentRepo.countByProductIdAndParentIsNull(productId);
+        return commentRepoCustom.count(CommentTarget.PRODUCT, productId, true);
     }
 
     /**
@@ -570,7 +753,7 @@ public class CommentServiceImpl implements CommentService {
      */
     @Override
     public long countCommentsByProduct(String productId) {
-        return commentRepo.countByProductId(productId);
+        return targetRepos.get(CommentTarget.PRODUCT).getCommentCount(productId).orElse(0);
     }
 
     /**
@@ -581,7 +764,7 @@ public class CommentServiceImpl implements CommentService {
      */
     @Override
     public long countRootCommentsByFreePattern(String freePatternId) {
-        return commentRepo.countByFreePatternIdAndParentIsNull(freePatternId);
+        return commentRepoCustom.count(CommentTarget.FREE_PATTERN, freePatternId, true);
     }
 
     /**
@@ -592,6 +775,6 @@ public class CommentServiceImpl implements CommentService {
      */
     @Override
     public long countCommentsByFreePattern(String freePatternId) {
-        return commentRepo.countByFreePatternId(freePatternId);
+        return targetRepos.get(CommentTarget.FREE_PATTERN).getCommentCount(freePatternId).orElse(0);
     }
 }
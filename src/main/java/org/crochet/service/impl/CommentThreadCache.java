@@ -0,0 +1,191 @@
+package org.crochet.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import org.crochet.enums.CommentTarget;
+import org.crochet.payload.response.CommentResponse;
+import org.crochet.properties.AppProperties;
+import org.crochet.util.TransactionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the newest root comments of each comment target, keyed by target type and id.
+ * <p>
+ * Holds the first {@code app.comment.thread-cache-rows} root comments, already mapped, so first
+ * pages of popular threads are served without a query. Comment writes patch or invalidate the
+ * entry after their transaction commits; the TTL bounds staleness from writes made elsewhere.
+ * Hit, miss, eviction and size metrics are published as {@code cache.*{cache=commentThreads}}.
+ */
+@Component
+public class CommentThreadCache {
+    private final Cache<String, Snapshot> snapshots;
+    @Getter
+    private final int rows;
+
+    /**
+     * Constructor
+     *
+     * @param appProperties AppProperties
+     * @param meterRegistry MeterRegistry
+     */
+    public CommentThreadCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        var properties = appProperties.getComment();
+        this.rows = properties.getThreadCacheRows();
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(properties.getThreadCacheSize())
+                .expireAfterWrite(properties.getThreadCacheTtlMs(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "commentThreads");
+    }
+
+    /**
+     * Get the cached root comments of a target, loading them on a miss
+     *
+     * @param target   CommentTarget
+     * @param targetId Target id
+     * @param loader   Loads the first {@link #getRows()} root comments
+     * @return Snapshot
+     */
+    public Snapshot get(CommentTarget target, String targetId, Supplier<Snapshot> loader) {
+        return snapshots.get(key(target, targetId), k -> loader.get());
+    }
+
+    /**
+     * Add a new root comment at the head of a cached thread once the transaction commits
+     *
+     * @param target   CommentTarget
+     * @param targetId Target id
+     * @param root     The new root comment
+     */
+    public void addRoot(CommentTarget target, String targetId, CommentResponse root) {
+        TransactionUtils.afterCommit(() -> snapshots.asMap().computeIfPresent(key(target, targetId),
+                (k, snapshot) -> snapshot.withRoot(root, rows)));
+    }
+
+    /**
+     * Replace an edited root comment in a cached thread once the transaction commits
+     *
+     * @param target   CommentTarget
+     * @param targetId Target id
+     * @param root     The edited root comment
+     */
+    public void replaceRoot(CommentTarget target, String targetId, CommentResponse root) {
+        TransactionUtils.afterCommit(() -> snapshots.asMap().computeIfPresent(key(target, targetId),
+                (k, snapshot) -> snapshot.withReplaced(root)));
+    }
+
+    /**
+     * Change the reply count of a cached root comment once the transaction commits
+     *
+     * @param target   CommentTarget
+     * @param targetId Target id
+     * @param rootId   Root comment id
+     * @param delta    Change of the reply count
+     */
+    public void adjustReplyCount(CommentTarget target, String targetId, String rootId, int delta) {
+        TransactionUtils.afterCommit(() -> snapshots.asMap().computeIfPresent(key(target, targetId),
+                (k, snapshot) -> snapshot.withReplyCount(rootId, delta)));
+    }
+
+    /**
+     * Drop a cached thread once the transaction commits
+     *
+     * @param target   CommentTarget
+     * @param targetId Target id
+     */
+    public void invalidate(CommentTarget target, String targetId) {
+        TransactionUtils.afterCommit(() -> snapshots.invalidate(key(target, targetId)));
+    }
+
+    private static String key(CommentTarget target, String targetId) {
+        return target.name() + ':' + targetId;
+    }
+
+    private static CommentResponse copy(CommentResponse source) {
+        return new CommentResponse(source.getId(), source.getContent(), source.getCreatedDate(),
+                source.getUserId(), source.getUsername(), source.getUserAvatar(),
+                source.getParentId(), source.getReplyCount(),
+                source.getMentionedUserId(), source.getMentionedUsername());
+    }
+
+    /**
+     * Immutable snapshot of the newest root comments of a target.
+     */
+    public static final class Snapshot {
+        private final List<CommentResponse> roots;
+        @Getter
+        private final long rootCount;
+
+        /**
+         * Constructor
+         *
+         * @param roots     Newest root comments, newest first
+         * @param rootCount Total number of root comments of the target
+         */
+        public Snapshot(List<CommentResponse> roots, long rootCount) {
+            this.roots = roots.stream().map(CommentThreadCache::copy).toList();
+            this.rootCount = rootCount;
+        }
+
+        /**
+         * Copies of the cached root comments in [from, to), clamped to the cached rows
+         *
+         * @param from Inclusive start index
+         * @param to   Exclusive end index
+         * @return Mutable list of copies, safe to hand out to callers
+         */
+        public List<CommentResponse> slice(int from, int to) {
+            int end = Math.min(to, roots.size());
+            List<CommentResponse> result = new ArrayList<>(Math.max(end - from, 0));
+            for (int i = from; i < end; i++) {
+                result.add(copy(roots.get(i)));
+            }
+            return result;
+        }
+
+        private Snapshot withRoot(CommentResponse root, int rows) {
+            List<CommentResponse> updated = new ArrayList<>(roots.size() + 1);
+            updated.add(root);
+            updated.addAll(roots.subList(0, Math.min(roots.size(), rows - 1)));
+            return new Snapshot(updated, rootCount + 1);
+        }
+
+        private Snapshot withReplaced(CommentResponse root) {
+            List<CommentResponse> updated = new ArrayList<>(roots.size());
+            for (CommentResponse cached : roots) {
+                if (cached.getId().equals(root.getId())) {
+                    CommentResponse edited = copy(root);
+                    edited.setCreatedDate(cached.getCreatedDate());
+                    edited.setReplyCount(cached.getReplyCount());
+                    updated.add(edited);
+                } else {
+                    updated.add(cached);
+                }
+            }
+            return new Snapshot(updated, rootCount);
+        }
+
+        private Snapshot withReplyCount(String rootId, int delta) {
+            List<CommentResponse> updated = new ArrayList<>(roots.size());
+            for (CommentResponse cached : roots) {
+                if (cached.getId().equals(rootId)) {
+                    CommentResponse changed = copy(cached);
+                    changed.setReplyCount(Math.max(0, cached.getReplyCount() + delta));
+                    updated.add(changed);
+                } else {
+                    updated.add(cached);
+                }
+            }
+            return new Snapshot(updated, rootCount);
+        }
+    }
+}
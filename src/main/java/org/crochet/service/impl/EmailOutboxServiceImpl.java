@@ -0,0 +1,186 @@
+package org.crochet.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.crochet.enums.EmailStatus;
+import org.crochet.model.EmailOutbox;
+import org.crochet.properties.AppProperties;
+import org.crochet.repository.EmailOutboxRepo;
+import org.crochet.service.EmailOutboxService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UnsupportedEncodingException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers queued emails from the outbox.
+ * <p>
+ * Due rows are locked in batches, skipping rows locked by another instance, and each batch is sent
+ * over a single SMTP connection. Failed messages are retried with exponential backoff until the
+ * maximum number of attempts is reached.
+ */
+@Slf4j
+@Service
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepo emailOutboxRepo;
+    private final JavaMailSender javaMailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties.Mail properties;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    /**
+     * Constructor
+     *
+     * @param emailOutboxRepo     EmailOutboxRepo
+     * @param javaMailSender      JavaMailSender
+     * @param transactionTemplate TransactionTemplate
+     * @param appProperties       AppProperties
+     * @param meterRegistry       MeterRegistry
+     */
+    public EmailOutboxServiceImpl(EmailOutboxRepo emailOutboxRepo,
+                                  JavaMailSender javaMailSender,
+                                  TransactionTemplate transactionTemplate,
+                                  AppProperties appProperties,
+                                  MeterRegistry meterRegistry) {
+        this.emailOutboxRepo = emailOutboxRepo;
+        this.javaMailSender = javaMailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = appProperties.getMail();
+        this.sentCounter = meterRegistry.counter("email.outbox.sent");
+        this.retriedCounter = meterRegistry.counter("email.outbox.retried");
+        this.failedCounter = meterRegistry.counter("email.outbox.failed");
+    }
+
+    /**
+     * Deliver every email that is due, one batch per transaction
+     *
+     * @return Number of emails processed
+     */
+    @Override
+    public int deliverDueEmails() {
+        int total = 0;
+        while (true) {
+            Integer processed = transactionTemplate.execute(status -> deliverBatch());
+            int count = processed != null ? processed : 0;
+            total += count;
+            if (count < properties.getOutboxBatchSize()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.debug("Processed {} queued emails", total);
+        }
+        return total;
+    }
+
+    private int deliverBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> due = emailOutboxRepo.lockDue(EmailStatus.PENDING, now,
+                PageRequest.of(0, properties.getOutboxBatchSize()));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>(due.size());
+        for (EmailOutbox email : due) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException | UnsupportedEncodingException e) {
+                // A message that cannot be built will never be sent
+                markFailed(email, now, e);
+            }
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        if (!messages.isEmpty()) {
+            try {
+                javaMailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                failures = e.getFailedMessages();
+            } catch (MailException e) {
+                log.warn("Failed to deliver {} queued emails", messages.size(), e);
+                failures = new IdentityHashMap<>();
+                for (MimeMessage message : messages.keySet()) {
+                    failures.put(message, e);
+                }
+            }
+        }
+
+        for (var entry : messages.entrySet()) {
+            EmailOutbox email = entry.getValue();
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                email.setStatus(EmailStatus.SENT);
+                email.setAttempts(email.getAttempts() + 1);
+                email.setSentAt(now);
+                email.setLastError(null);
+                sentCounter.increment();
+            } else {
+                scheduleRetry(email, now, failure);
+            }
+        }
+        emailOutboxRepo.saveAll(due);
+        return due.size();
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox email)
+            throws MessagingException, UnsupportedEncodingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
+        helper.setText(email.getContent(), true);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setFrom(properties.getFromAddress(), properties.getFromName());
+        return mimeMessage;
+    }
+
+    private void scheduleRetry(EmailOutbox email, LocalDateTime now, Exception failure) {
+        int attempts = email.getAttempts() + 1;
+        if (attempts >= properties.getMaxAttempts()) {
+            markFailed(email, now, failure);
+            return;
+        }
+        email.setAttempts(attempts);
+        email.setLastError(truncate(failure.getMessage()));
+        email.setNextAttemptAt(now.plus(Duration.ofMillis(backoffMs(attempts))));
+        retriedCounter.increment();
+    }
+
+    private void markFailed(EmailOutbox email, LocalDateTime now, Exception failure) {
+        log.error("Giving up on email {} to {}", email.getId(), email.getRecipient(), failure);
+        email.setStatus(EmailStatus.FAILED);
+        email.setAttempts(email.getAttempts() + 1);
+        email.setNextAttemptAt(now);
+        email.setLastError(truncate(failure.getMessage()));
+        failedCounter.increment();
+    }
+
+    private long backoffMs(int attempts) {
+        long backoff = properties.getInitialBackoffMs() << Math.min(attempts - 1, 20);
+        return Math.min(backoff, properties.getMaxBackoffMs());
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
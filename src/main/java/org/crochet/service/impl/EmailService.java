@@ -1,62 +1,49 @@
 package org.crochet.service.impl;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import lombok.extern.slf4j.Slf4j;
-import org.crochet.enums.ResultCode;
-import org.crochet.exception.IllegalStateException;
+import org.crochet.model.EmailOutbox;
+import org.crochet.repository.EmailOutboxRepo;
 import org.crochet.service.EmailSender;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.UnsupportedEncodingException;
+import java.time.LocalDateTime;
 
 /**
  * EmailService class
+ * <p>
+ * Emails are written to the outbox in the caller's transaction and delivered by
+ * {@link EmailOutboxServiceImpl}, so an email is only sent if the registration or reset that
+ * produced it commits, and it is not lost when the mail server is unavailable.
  */
 @Service
-@Slf4j
 public class EmailService implements EmailSender {
-    private final JavaMailSender javaMailSender;
+    private final EmailOutboxRepo emailOutboxRepo;
 
     /**
      * Constructor
      *
-     * @param javaMailSender JavaMailSender
+     * @param emailOutboxRepo EmailOutboxRepo
      */
-    public EmailService(JavaMailSender javaMailSender) {
-        this.javaMailSender = javaMailSender;
+    public EmailService(EmailOutboxRepo emailOutboxRepo) {
+        this.emailOutboxRepo = emailOutboxRepo;
     }
 
     /**
-     * Send email
+     * Queue an email for delivery
      *
      * @param to      user's email
      * @param subject subject
      * @param content content
-     * @throws IllegalStateException failed to send email
-     * @throws RuntimeException      unsupported encoding
      */
     @Override
-    @Async
+    @Transactional
     public void send(String to, String subject, String content) {
-        try {
-            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
-            helper.setText(content, true);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setFrom("thamphuong.crochet@gmail.com", "Little Crochet");
-            javaMailSender.send(mimeMessage);
-        } catch (MessagingException e) {
-            log.error(ResultCode.MSG_FAILED_SEND_EMAIL.message(), e);
-            throw new IllegalStateException(ResultCode.MSG_FAILED_SEND_EMAIL.message(),
-                    ResultCode.MSG_FAILED_SEND_EMAIL.code());
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
-        }
+        var email = EmailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .content(content)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+        emailOutboxRepo.save(email);
     }
 }
-
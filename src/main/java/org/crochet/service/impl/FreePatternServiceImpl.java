@@ -1,10 +1,13 @@
 package org.crochet.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.turkraft.springfilter.converter.FilterSpecification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.crochet.enums.ResultCode;
 import org.crochet.enums.RoleType;
+import org.crochet.enums.SearchType;
 import org.crochet.exception.ResourceNotFoundException;
 import org.crochet.mapper.CategoryMapper;
 import org.crochet.mapper.FileMapper;
@@ -15,7 +18,6 @@ import org.crochet.model.Settings;
 import org.crochet.payload.request.FreePatternRequest;
 import org.crochet.payload.response.FreePatternResponse;
 import org.crochet.payload.response.PaginationResponse;
-import org.crochet.repository.CommentRepository;
 import org.crochet.repository.FreePatternRepoCustom;
 import org.crochet.repository.FreePatternRepository;
 import org.crochet.repository.FreePatternSpecifications;
@@ -28,6 +30,12 @@ import org.crochet.util.ImageUtils;
 import org.crochet.util.ObjectUtils;
 import org.crochet.util.SecurityUtils;
 import org.crochet.util.SettingsUtil;
+import org.crochet.util.TokenUtils;
+import org.crochet.util.TransactionUtils;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -36,9 +44,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * FreePatternServiceImpl class
@@ -47,14 +62,18 @@ import java.util.Set;
 @Service
 @RequiredArgsConstructor
 public class FreePatternServiceImpl implements FreePatternService {
+    private static final String DETAIL_CACHE = "freePatterns";
+
     private final FreePatternRepository freePatternRepo;
     private final SettingsUtil settingsUtil;
     private final FreePatternRepoCustom freePatternRepoCustom;
     private final PermissionService permissionService;
     private final CategoryService categoryService;
     private final UserService userService;
-    private final CommentRepository commentRepository;
     private final CollectionService collectionService;
+    private final CacheManager cacheManager;
+    private final SearchIndex searchIndex;
+    private final ObjectMapper objectMapper;
 
     /**
      * Creates a new FreePattern or updates an existing one based on the provided
@@ -90,8 +109,14 @@ public class FreePatternServiceImpl implements FreePatternService {
             freePattern = findById(request.getId());
             permissionService.checkUserPermission(freePattern, "update");
             freePattern = FreePatternMapper.INSTANCE.update(request, freePattern);
+            // Luôn cập nhật lastModifiedDate, kể cả khi chỉ images/files thay đổi, để ETag của chi tiết thay đổi theo
+            freePattern.setLastModifiedDate(LocalDateTime.now());
+            evictDetails(List.of(freePattern.getId()));
         }
-        freePatternRepo.save(freePattern);
+        freePattern = freePatternRepo.save(freePattern);
+        searchIndex.put(SearchType.FREE_PATTERN, freePattern.getId(), freePattern.getName(),
+                String.join(" ", Objects.toString(freePattern.getAuthor(), ""),
+                        Objects.toString(freePattern.getDescription(), "")));
     }
 
     /**
@@ -129,52 +154,24 @@ public class FreePatternServiceImpl implements FreePatternService {
             spec = spec.and(FreePatternSpecifications.getAllByCategoryId(categoryId));
             // Sử dụng COUNT riêng biệt cho category với filter
             if (filter != null && ObjectUtils.isNotEmpty(filter.getChildren())) {
-                List<String> ids = freePatternRepoCustom.findAllIds(spec);
-                content = freePatternRepo.getFrepByIds(ids, pageable).getContent();
-                totalElements = ids.size();
+                var page = getFilteredPage(spec, pageable);
+                content = page.getContent();
+                totalElements = page.getTotalElements();
             } else {
                 totalElements = freePatternRepo.countByCategoryId(categoryId);
-                // Sử dụng specification để filter data thay vì getFrepWithPageable
-                content = freePatternRepo.findAll(spec, pageable).stream()
-                        .map(this::convertToResponse)
-                        .toList();
+                content = freePatternRepo.getFrepByCategory(categoryId, pageable);
             }
         } else if (filter != null && ObjectUtils.isNotEmpty(filter.getChildren())) {
-            List<String> ids = freePatternRepoCustom.findAllIds(spec);
-            content = freePatternRepo.getFrepByIds(ids, pageable).getContent();
-            totalElements = ids.size();
+            var page = getFilteredPage(spec, pageable);
+            content = page.getContent();
+            totalElements = page.getTotalElements();
         } else {
             // Sử dụng COUNT riêng biệt cho trường hợp không có filter
             totalElements = freePatternRepo.countAllFreePatterns();
             content = freePatternRepo.getFrepWithPageable(pageable).getContent();
         }
 
-        // Thêm collection status cho từng pattern (chỉ khi user đã login)
-        if (!content.isEmpty()) {
-            // Kiểm tra xem user có login không
-            var currentUser = SecurityUtils.getCurrentUser();
-            if (currentUser != null) {
-                try {
-                    Set<String> patternIds = content.stream()
-                            .map(FreePatternResponse::getId)
-                            .collect(java.util.stream.Collectors.toSet());
-
-                    java.util.Map<String, Boolean> collectionStatus =
-                            collectionService.checkFreePatternsInCollection(patternIds);
-
-                    // Cập nhật trạng thái collection cho từng pattern
-                    content.forEach(pattern ->
-                            pattern.setInCollection(collectionStatus.getOrDefault(pattern.getId(), false))
-                    );
-                } catch (Exception e) {
-                    // Nếu có lỗi, set tất cả patterns là false
-                    content.forEach(pattern -> pattern.setInCollection(false));
-                }
-            } else {
-                // Nếu user chưa login, set tất cả patterns là false
-                content.forEach(pattern -> pattern.setInCollection(false));
-            }
-        }
+        markInCollection(content);
 
         // Tính toán thông tin phân trang
         int totalPages = (int) Math.ceil((double) totalElements / limit);
@@ -222,41 +219,16 @@ public class FreePatternServiceImpl implements FreePatternService {
         List<FreePatternResponse> content;
 
         if (filter != null && ObjectUtils.isNotEmpty(filter.getChildren())) {
-            var freePatternIds = freePatternRepoCustom.findAllIds(spec);
-            content = freePatternRepo.getByUserAndIds(userId, freePatternIds, pageable).getContent();
-            totalElements = freePatternIds.size();
+            var page = getFilteredPage(spec.and(FreePatternSpecifications.getByCreatedBy(userId)), pageable);
+            content = page.getContent();
+            totalElements = page.getTotalElements();
         } else {
             // Sử dụng COUNT riêng biệt cho user
             totalElements = freePatternRepo.countByUserId(userId);
             content = freePatternRepo.getByUserWithPageable(userId, pageable).getContent();
         }
         
-        // Thêm collection status cho từng pattern (chỉ khi user đã login)
-        if (!content.isEmpty()) {
-            // Kiểm tra xem user có login không
-            var currentUser = SecurityUtils.getCurrentUser();
-            if (currentUser != null) {
-                try {
-                    Set<String> patternIds = content.stream()
-                            .map(FreePatternResponse::getId)
-                            .collect(java.util.stream.Collectors.toSet());
-                    
-                    java.util.Map<String, Boolean> collectionStatus = 
-                        collectionService.checkFreePatternsInCollection(patternIds);
-                    
-                    // Cập nhật trạng thái collection cho từng pattern
-                    content.forEach(pattern -> 
-                        pattern.setInCollection(collectionStatus.getOrDefault(pattern.getId(), false))
-                    );
-                } catch (Exception e) {
-                    // Nếu có lỗi, set tất cả patterns là false
-                    content.forEach(pattern -> pattern.setInCollection(false));
-                }
-            } else {
-                // Nếu user chưa login, set tất cả patterns là false
-                content.forEach(pattern -> pattern.setInCollection(false));
-            }
-        }
+        markInCollection(content);
 
         // Tính toán thông tin phân trang
         int totalPages = (int) Math.ceil((double) totalElements / limit);
@@ -272,6 +244,46 @@ public class FreePatternServiceImpl implements FreePatternService {
                 .build();
     }
 
+    /**
+     * Page the free patterns matching a filter. The page and the total are computed in the database,
+     * then only the ids of the page are mapped to responses.
+     *
+     * @param spec     Specification<FreePattern>
+     * @param pageable Pageable
+     * @return Page of FreePatternResponse, in the order of the page
+     */
+    private Page<FreePatternResponse> getFilteredPage(Specification<FreePattern> spec, Pageable pageable) {
+        Page<String> ids = freePatternRepoCustom.findPageIds(spec, pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(new ArrayList<>(), pageable, ids.getTotalElements());
+        }
+        Map<String, FreePatternResponse> responses = freePatternRepo.getFrepByIds(ids.getContent(), Pageable.unpaged())
+                .stream()
+                .collect(Collectors.toMap(FreePatternResponse::getId, Function.identity(), (first, second) -> first));
+        List<FreePatternResponse> content = ids.stream()
+                .map(responses::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(ArrayList::new));
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+
+    /**
+     * Set the collection status of each pattern for the current user, false when not logged in.
+     * The saved pattern ids of the user are cached, so this runs no query per page.
+     *
+     * @param patterns Patterns to update
+     */
+    private void markInCollection(List<FreePatternResponse> patterns) {
+        if (patterns.isEmpty()) {
+            return;
+        }
+        var currentUser = SecurityUtils.getCurrentUser();
+        Set<String> savedIds = currentUser != null
+                ? collectionService.getSavedFreePatternIds(currentUser.getId())
+                : Set.of();
+        patterns.forEach(pattern -> pattern.setInCollection(savedIds.contains(pattern.getId())));
+    }
+
     /**
      * Retrieves a limited list of FreePatterns.
      *
@@ -302,32 +314,7 @@ public class FreePatternServiceImpl implements FreePatternService {
 
         List<FreePatternResponse> patterns = freePatternRepo.findLimitedNumFreePattern(pageable);
         
-        // Thêm collection status cho từng pattern (chỉ khi user đã login)
-        if (!patterns.isEmpty()) {
-            // Kiểm tra xem user có login không
-            var currentUser = SecurityUtils.getCurrentUser();
-            if (currentUser != null) {
-                try {
-                    Set<String> patternIds = patterns.stream()
-                            .map(FreePatternResponse::getId)
-                            .collect(java.util.stream.Collectors.toSet());
-                    
-                    java.util.Map<String, Boolean> collectionStatus = 
-                        collectionService.checkFreePatternsInCollection(patternIds);
-                    
-                    // Cập nhật trạng thái collection cho từng pattern
-                    patterns.forEach(pattern -> 
-                        pattern.setInCollection(collectionStatus.getOrDefault(pattern.getId(), false))
-                    );
-                } catch (Exception e) {
-                    // Nếu có lỗi, set tất cả patterns là false
-                    patterns.forEach(pattern -> pattern.setInCollection(false));
-                }
-            } else {
-                // Nếu user chưa login, set tất cả patterns là false
-                patterns.forEach(pattern -> pattern.setInCollection(false));
-            }
-        }
+        markInCollection(patterns);
 
         return patterns;
     }
@@ -356,6 +343,55 @@ public class FreePatternServiceImpl implements FreePatternService {
     @Transactional(readOnly = true)
     @Override
     public FreePatternResponse getDetail(String id) {
+        // Phần không phụ thuộc user được cache; số bình luận và trạng thái collection luôn được lấy mới
+        var cache = getDetailCache();
+        var detail = getCachedDetail(cache, id);
+        var version = freePatternRepo.getDetailVersion(id).orElse(null);
+        if (version == null) {
+            cache.evict(id);
+            throw new ResourceNotFoundException(
+                    ResultCode.MSG_FREE_PATTERN_NOT_FOUND.message(),
+                    ResultCode.MSG_FREE_PATTERN_NOT_FOUND.code()
+            );
+        }
+        // Bản cache được nạp từ dữ liệu cũ hơn lần cập nhật đã commit: bỏ nó, request sau sẽ nạp lại.
+        // Không nạp lại ở đây vì entity cũ vẫn nằm trong persistence context của transaction này
+        if (!Objects.equals(version.getLastModifiedDate(), detail.getLastModifiedDate())) {
+            cache.evict(id);
+        }
+        long commentCount = version.getCommentCount();
+
+        // Kiểm tra collection status (chỉ khi user đã login)
+        var currentUser = SecurityUtils.getCurrentUser();
+        boolean inCollection = currentUser != null
+                && collectionService.getSavedFreePatternIds(currentUser.getId()).contains(id);
+
+        return detail.toBuilder()
+                .commentCount(commentCount)
+                .inCollection(inCollection)
+                .build();
+    }
+
+    // Caffeine nạp từng key một cách nguyên tử: evict sau commit xảy ra trong lúc nạp sẽ chờ rồi xóa giá trị vừa nạp
+    private FreePatternResponse getCachedDetail(Cache cache, String id) {
+        try {
+            return cache.get(id, () -> loadDetail(id));
+        } catch (Cache.ValueRetrievalException e) {
+            // Trả về lỗi gốc (ví dụ ResourceNotFoundException) thay vì lỗi bọc của cache
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Load the user-independent part of the detail of a FreePattern
+     *
+     * @param id The unique identifier of the FreePattern.
+     * @return FreePatternResponse without comment count and collection status
+     */
+    private FreePatternResponse loadDetail(String id) {
         var frep = freePatternRepo.findFrepById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         ResultCode.MSG_FREE_PATTERN_NOT_FOUND.message(),
@@ -365,21 +401,8 @@ public class FreePatternServiceImpl implements FreePatternService {
         var images = FileMapper.INSTANCE.toResponses(frep.getImages());
         var files = FileMapper.INSTANCE.toResponses(frep.getFiles());
         var category = CategoryMapper.INSTANCE.toResponse(frep.getCategory());
-        var commentCount = commentRepository.countByFreePatternId(id);
-        
-        // Kiểm tra collection status (chỉ khi user đã login)
-        Boolean inCollection = false;
-        try {
-            var currentUser = SecurityUtils.getCurrentUser();
-            if (currentUser != null) {
-                inCollection = collectionService.checkFreePatternInCollection(id);
-            }
-        } catch (Exception e) {
-            // Nếu user chưa login hoặc có lỗi, set là false
-            inCollection = false;
-        }
 
-        return FreePatternResponse.builder()
+        var detail = FreePatternResponse.builder()
                 .id(frep.getId())
                 .name(frep.getName())
                 .description(frep.getDescription())
@@ -394,9 +417,31 @@ public class FreePatternServiceImpl implements FreePatternService {
                 .images(images)
                 .files(files)
                 .category(category)
-                .commentCount(commentCount)
-                .inCollection(inCollection)
+                .lastModifiedDate(frep.getLastModifiedDate())
                 .build();
+        // Hash được tính một lần khi nạp vào cache, ETag đổi theo mọi nội dung trả về (kể cả tác giả, category)
+        detail.setContentHash(contentHash(detail));
+        return detail;
+    }
+
+    private String contentHash(FreePatternResponse detail) {
+        try {
+            return TokenUtils.digest(objectMapper.writeValueAsString(detail));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize free pattern detail " + detail.getId(), e);
+        }
+    }
+
+    private Cache getDetailCache() {
+        return Objects.requireNonNull(cacheManager.getCache(DETAIL_CACHE));
+    }
+
+    // Xóa cache chi tiết sau khi transaction commit, để lần đọc tiếp theo không cache lại dữ liệu cũ
+    private void evictDetails(Collection<String> ids) {
+        TransactionUtils.afterCommit(() -> {
+            var cache = getDetailCache();
+            ids.forEach(cache::evict);
+        });
     }
 
     /**
@@ -410,6 +455,8 @@ public class FreePatternServiceImpl implements FreePatternService {
         var freePattern = findById(id);
         permissionService.checkUserPermission(freePattern, "delete");
         freePatternRepo.delete(freePattern);
+        evictDetails(List.of(id));
+        searchIndex.remove(SearchType.FREE_PATTERN, List.of(id));
     }
 
     /**
@@ -431,9 +478,14 @@ public class FreePatternServiceImpl implements FreePatternService {
         // Delete all free patterns if user is admin. Otherwise, delete only free patterns created by the user
         if (currentUser.getRole() == RoleType.ADMIN) {
             freePatternRepo.deleteAllById(ids);
+            searchIndex.remove(SearchType.FREE_PATTERN, ids);
         } else {
+            // Chỉ các pattern của user bị xóa, nên chỉ gỡ các id đó khỏi chỉ mục tìm kiếm
+            var ownedIds = freePatternRepo.findIdsByIdInAndCreatedBy(ids, currentUser.getId());
             freePatternRepo.deleteAllByIdAndCreatedBy(ids, currentUser.getId());
+            searchIndex.remove(SearchType.FREE_PATTERN, ownedIds);
         }
+        evictDetails(ids);
     }
 
     /**
@@ -475,33 +527,4 @@ public class FreePatternServiceImpl implements FreePatternService {
                 ));
     }
 
-    /**
-     * Convert FreePattern entity to FreePatternResponse
-     * @param freePattern the entity to convert
-     * @return FreePatternResponse
-     */
-    private FreePatternResponse convertToResponse(FreePattern freePattern) {
-        var user = userService.getById(freePattern.getCreatedBy());
-        var images = FileMapper.INSTANCE.toResponses(freePattern.getImages());
-        var files = FileMapper.INSTANCE.toResponses(freePattern.getFiles());
-        var category = CategoryMapper.INSTANCE.toResponse(freePattern.getCategory());
-
-        return FreePatternResponse.builder()
-                .id(freePattern.getId())
-                .name(freePattern.getName())
-                .description(freePattern.getDescription())
-                .author(freePattern.getAuthor())
-                .isHome(freePattern.isHome())
-                .link(freePattern.getLink())
-                .content(freePattern.getContent())
-                .status(freePattern.getStatus())
-                .userId(user.getId())
-                .username(user.getName())
-                .userAvatar(user.getImageUrl())
-                .images(images)
-                .files(files)
-                .category(category)
-                .build();
-    }
-
 }
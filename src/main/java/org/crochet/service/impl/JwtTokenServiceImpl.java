@@ -1,7 +1,11 @@
 package org.crochet.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -10,8 +14,10 @@ import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SecurityException;
 import org.crochet.model.User;
 import org.crochet.properties.AppProperties;
+import org.crochet.security.VerifiedToken;
 import org.crochet.service.JwtTokenService;
 import org.crochet.service.TokenBlacklistService;
+import org.crochet.util.TokenUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
@@ -19,10 +25,11 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -34,6 +41,9 @@ public class JwtTokenServiceImpl implements JwtTokenService {
 
     private final AppProperties appProperties;
     private final TokenBlacklistService tokenBlacklistService;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     /**
      * Constructor
@@ -45,6 +55,11 @@ public class JwtTokenServiceImpl implements JwtTokenService {
             TokenBlacklistService tokenBlacklistService) {
         this.appProperties = appProperties;
         this.tokenBlacklistService = tokenBlacklistService;
+        this.signingKey = buildKey(appProperties.getAuth().getTokenSecret());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.verifiedTokens = buildVerifiedTokenCache(appProperties.getAuth());
     }
 
     /**
@@ -66,10 +81,11 @@ public class JwtTokenServiceImpl implements JwtTokenService {
 
         // Build and sign the JWT token
         return Jwts.builder()
+                .claims(principalClaims(userPrincipal)) // Set the claims used to rebuild the principal
                 .subject(userPrincipal.getId()) // Set the subject of the token as the user ID
                 .issuedAt(new Date()) // Set the issued date as the current date
                 .expiration(expiryDate) // Set the token expiration date
-                .signWith(getKey()) // Sign the token using the key and algorithm
+                .signWith(signingKey) // Sign the token using the key and algorithm
                 .compact(); // Compact the token into its final string representation
     }
 
@@ -123,6 +139,31 @@ public class JwtTokenServiceImpl implements JwtTokenService {
         return generateToken(new HashMap<>(), username);
     }
 
+    /**
+     * Generates a JWT token for the specified user, carrying the role and email
+     * verification claims so the principal can be built without loading the user.
+     *
+     * @param user The user for which to generate the token.
+     * @return The generated JWT token.
+     */
+    @Override
+    public String generateToken(User user) {
+        return generateToken(principalClaims(user), user.getId());
+    }
+
+    /**
+     * Builds the claims needed to rebuild the principal of the specified user.
+     *
+     * @param user The user.
+     * @return The principal claims.
+     */
+    private Map<String, Object> principalClaims(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(VerifiedToken.CLAIM_ROLE, user.getRole().name());
+        claims.put(VerifiedToken.CLAIM_EMAIL_VERIFIED, user.isEmailVerified());
+        return claims;
+    }
+
     /**
      * Generates a JWT token for the specified username with the specified extra
      * claims.
@@ -157,7 +198,7 @@ public class JwtTokenServiceImpl implements JwtTokenService {
                 .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -168,47 +209,88 @@ public class JwtTokenServiceImpl implements JwtTokenService {
      * @return true if the token is expired, false otherwise.
      */
     private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return verify(token).isExpired();
     }
 
     /**
-     * Extracts the expiration date from the provided token.
+     * Extracts all claims from the provided token.
      *
-     * @param token The token from which to extract the expiration date.
-     * @return The expiration date extracted from the token.
+     * @param token The token from which to extract the claims.
+     * @return The claims extracted from the token.
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private Claims extractAllClaims(String token) {
+        return verify(token).getClaims();
     }
 
     /**
-     * Extracts all claims from the provided token.
+     * Returns the verified form of the token, parsing and checking the signature only when
+     * the token is not already in the verified token cache.
      *
-     * @param token The token from which to extract the claims.
-     * @return The claims extracted from the token.
+     * @param token The raw token.
+     * @return The verified token.
+     * @throws io.jsonwebtoken.JwtException If the token cannot be parsed or verified.
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith((SecretKey) getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private VerifiedToken verify(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT claims string is empty.");
+        }
+        String digest = TokenUtils.digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        VerifiedToken verifiedToken = new VerifiedToken(digest, claims);
+        verifiedTokens.put(digest, verifiedToken);
+        return verifiedToken;
     }
 
     /**
-     * Retrieves the cryptographic key used for token generation and validation.
+     * Builds the cryptographic key used for token generation and validation.
      *
+     * @param tokenSecret The Base64-encoded token secret.
      * @return The cryptographic key.
      */
-    private Key getKey() {
+    private static SecretKey buildKey(String tokenSecret) {
         // Decode the Base64-encoded token secret from the application properties
-        byte[] keyBytes = Decoders.BASE64.decode(appProperties.getAuth().getTokenSecret());
+        byte[] keyBytes = Decoders.BASE64.decode(tokenSecret);
 
         // Create and return an HMAC-based cryptographic key using the decoded key bytes
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
+    /**
+     * Builds the cache of recently verified tokens. Entries never outlive the token they hold.
+     *
+     * @param auth The auth properties.
+     * @return The verified token cache.
+     */
+    private static Cache<String, VerifiedToken> buildVerifiedTokenCache(AppProperties.Auth auth) {
+        long ttlMs = auth.getVerifiedTokenCacheTtlMs();
+        return Caffeine.newBuilder()
+                .maximumSize(auth.getVerifiedTokenCacheSize())
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.min(ttlMs, value.remainingMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     /**
      * Extracts the user ID from the provided token.
      *
@@ -218,15 +300,7 @@ public class JwtTokenServiceImpl implements JwtTokenService {
     @Deprecated
     @Override
     public String getUserIdFromToken(String token) {
-        // Parse the token, validate its signature, and retrieve the claims
-        Claims claims = Jwts.parser()
-                .verifyWith((SecretKey) getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        // Extract and return the user ID from the claims
-        return claims.getSubject();
+        return verify(token).getSubject();
     }
 
     /**
@@ -237,22 +311,34 @@ public class JwtTokenServiceImpl implements JwtTokenService {
      */
     @Override
     public boolean validateToken(String authToken) {
+        return verifyToken(authToken).isPresent();
+    }
+
+    /**
+     * Parses and verifies the provided JWT token once, returning its subject, expiration and claims.
+     *
+     * @param authToken The JWT token to verify.
+     * @return The verified token, or empty if the token is invalid, expired or blacklisted.
+     */
+    @Override
+    public Optional<VerifiedToken> verifyToken(String authToken) {
         try {
             // Parse the token and validate it using the configured signing key
-            Jwts.parser()
-                    .verifyWith((SecretKey) getKey())
-                    .build()
-                    .parseSignedClaims(authToken);
+            VerifiedToken verifiedToken = verify(authToken);
+            if (verifiedToken.isExpired()) {
+                logger.error("Expired JWT token");
+                return Optional.empty();
+            }
 
             // Check if the token is blacklisted
-            if (tokenBlacklistService.isTokenBlacklisted(authToken)) {
+            if (tokenBlacklistService.isDigestBlacklisted(verifiedToken.getDigest())) {
                 logger.error("Token is existed in blacklist");
-                return false;
+                return Optional.empty();
             }
 
             // If no exception is thrown during parsing and validation, the token is
             // considered valid
-            return true;
+            return Optional.of(verifiedToken);
         } catch (SecurityException ex) {
             logger.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -266,6 +352,6 @@ public class JwtTokenServiceImpl implements JwtTokenService {
         }
         // If an exception is caught during parsing or validation, the token is
         // considered invalid
-        return false;
+        return Optional.empty();
     }
 }
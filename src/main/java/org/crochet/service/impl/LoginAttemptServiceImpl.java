@@ -0,0 +1,106 @@
+package org.crochet.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.crochet.enums.ResultCode;
+import org.crochet.exception.TooManyRequestsException;
+import org.crochet.properties.AppProperties;
+import org.crochet.service.LoginAttemptService;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throttles failed logins per email and per client IP.
+ * <p>
+ * Failures are counted in a window that starts with the first failure. Once a limit is reached,
+ * further attempts are rejected before any password hashing happens, until the window expires.
+ */
+@Slf4j
+@Service
+public class LoginAttemptServiceImpl implements LoginAttemptService {
+    private final Cache<String, AtomicInteger> failuresByEmail;
+    private final Cache<String, AtomicInteger> failuresByIp;
+    private final int maxAttemptsPerEmail;
+    private final int maxAttemptsPerIp;
+
+    /**
+     * Constructor
+     *
+     * @param appProperties AppProperties
+     */
+    public LoginAttemptServiceImpl(AppProperties appProperties) {
+        var password = appProperties.getPassword();
+        this.maxAttemptsPerEmail = password.getMaxAttemptsPerEmail();
+        this.maxAttemptsPerIp = password.getMaxAttemptsPerIp();
+        this.failuresByEmail = buildCache(password.getAttemptWindowMs());
+        this.failuresByIp = buildCache(password.getAttemptWindowMs());
+    }
+
+    /**
+     * Reject the login if the email or the client IP has too many recent failures
+     *
+     * @param email    Email
+     * @param clientIp Client IP
+     */
+    @Override
+    public void checkAllowed(String email, String clientIp) {
+        if (count(failuresByEmail, normalize(email)) >= maxAttemptsPerEmail
+                || count(failuresByIp, clientIp) >= maxAttemptsPerIp) {
+            log.warn("Login throttled for email {} from {}", email, clientIp);
+            throw new TooManyRequestsException(ResultCode.MSG_TOO_MANY_LOGIN_ATTEMPTS.message(),
+                    ResultCode.MSG_TOO_MANY_LOGIN_ATTEMPTS.code());
+        }
+    }
+
+    /**
+     * Record a failed login
+     *
+     * @param email    Email
+     * @param clientIp Client IP
+     */
+    @Override
+    public void loginFailed(String email, String clientIp) {
+        increment(failuresByEmail, normalize(email));
+        increment(failuresByIp, clientIp);
+    }
+
+    /**
+     * Clear the failures of the email after a successful login
+     *
+     * @param email    Email
+     * @param clientIp Client IP
+     */
+    @Override
+    public void loginSucceeded(String email, String clientIp) {
+        failuresByEmail.invalidate(normalize(email));
+    }
+
+    private static Cache<String, AtomicInteger> buildCache(long windowMs) {
+        return Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(windowMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    private static int count(Cache<String, AtomicInteger> cache, String key) {
+        if (key == null) {
+            return 0;
+        }
+        var counter = cache.getIfPresent(key);
+        return counter != null ? counter.get() : 0;
+    }
+
+    private static void increment(Cache<String, AtomicInteger> cache, String key) {
+        if (key == null) {
+            return;
+        }
+        cache.asMap().computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private static String normalize(String email) {
+        return email != null ? email.trim().toLowerCase() : null;
+    }
+}
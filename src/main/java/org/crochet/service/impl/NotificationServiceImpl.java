@@ -1,5 +1,6 @@
 package org.crochet.service.impl;
 
+import io.hypersistence.tsid.TSID;
 import lombok.RequiredArgsConstructor;
 import org.crochet.exception.ResourceNotFoundException;
 import org.crochet.mapper.NotificationMapper;
@@ -8,14 +9,29 @@ import org.crochet.model.User;
 import org.crochet.payload.request.NotificationRequest;
 import org.crochet.payload.response.NotificationResponse;
 import org.crochet.payload.response.PaginationResponse;
+import org.crochet.properties.AppProperties;
 import org.crochet.repository.NotificationRepository;
+import org.crochet.repository.NotificationRepository.UnreadCount;
 import org.crochet.repository.UserRepository;
 import org.crochet.service.NotificationService;
+import org.crochet.util.TransactionUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +39,10 @@ public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final UnreadNotificationCounter unreadCounter;
+    private final NotificationStreamRegistry notificationStreams;
+    private final AppProperties appProperties;
     private final NotificationMapper notificationMapper = NotificationMapper.INSTANCE;
 
     @Override
@@ -45,10 +65,83 @@ public class NotificationServiceImpl implements NotificationService {
                 .receiver(receiver)
                 .sender(sender)
                 .notificationType(notificationRequest.getNotificationType())
+                .commentId(notificationRequest.getCommentId())
                 .build();
 
         notification = notificationRepository.save(notification);
-        return notificationMapper.toResponse(notification);
+        unreadCounter.add(receiver.getId(), 1);
+        NotificationResponse response = notificationMapper.toResponse(notification);
+        publishNotification(receiver.getId(), response);
+        return response;
+    }
+
+    /**
+     * Insert several notifications with one JDBC batch, without loading the receivers.
+     * Senders are only loaded when a receiver has an open notification stream. Receivers must exist.
+     *
+     * @param notificationRequests Notifications to create
+     */
+    @Override
+    @Transactional
+    public void createNotifications(List<NotificationRequest> notificationRequests) {
+        if (notificationRequests.isEmpty()) {
+            return;
+        }
+        var sql = """
+                INSERT INTO notifications
+                    (id, title, message, link, is_read, created_at, receiver_id, sender_id, notification_type, comment_id)
+                VALUES
+                    (:id, :title, :message, :link, false, :createdAt, :receiverId, :senderId, :notificationType, :commentId)
+                """;
+        LocalDateTime now = LocalDateTime.now();
+        notificationRequests.stream()
+                .collect(Collectors.groupingBy(NotificationRequest::getReceiverId, Collectors.counting()))
+                .forEach(unreadCounter::add);
+        Map<String, User> senders = loadSendersOfConnectedReceivers(notificationRequests);
+        SqlParameterSource[] batch = new SqlParameterSource[notificationRequests.size()];
+        for (int i = 0; i < batch.length; i++) {
+            NotificationRequest request = notificationRequests.get(i);
+            String id = TSID.Factory.getTsid().toString();
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("id", id)
+                    .addValue("title", request.getTitle())
+                    .addValue("message", request.getMessage())
+                    .addValue("link", request.getLink())
+                    .addValue("createdAt", now)
+                    .addValue("receiverId", request.getReceiverId())
+                    .addValue("senderId", request.getSenderId())
+                    .addValue("notificationType", request.getNotificationType().name())
+                    .addValue("commentId", request.getCommentId());
+            if (senders != null) {
+                User sender = senders.get(request.getSenderId());
+                publishNotification(request.getReceiverId(), NotificationResponse.builder()
+                        .id(id)
+                        .title(request.getTitle())
+                        .message(request.getMessage())
+                        .link(request.getLink())
+                        .createdAt(now)
+                        .notificationType(request.getNotificationType())
+                        .senderName(sender != null ? sender.getName() : null)
+                        .senderImageUrl(sender != null ? sender.getImageUrl() : null)
+                        .build());
+            }
+        }
+        jdbcTemplate.batchUpdate(sql, batch);
+    }
+
+    // Chỉ tải người gửi khi có người nhận đang mở kết nối SSE; null nếu không ai đang kết nối
+    private Map<String, User> loadSendersOfConnectedReceivers(List<NotificationRequest> notificationRequests) {
+        boolean connected = notificationRequests.stream()
+                .anyMatch(request -> notificationStreams.isConnected(request.getReceiverId()));
+        if (!connected) {
+            return null;
+        }
+        Set<String> senderIds = notificationRequests.stream()
+                .map(NotificationRequest::getSenderId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return userRepository.findAllById(senderIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
     }
 
     @Transactional(readOnly = true)
@@ -73,45 +166,47 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional
     public NotificationResponse markAsRead(String notificationId) {
+        // Chỉ giảm bộ đếm khi thông báo thực sự chuyển từ chưa đọc sang đã đọc
+        int updated = notificationRepository.markAsRead(notificationId);
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Notification not found with id: " + notificationId));
-
-        notification.setRead(true);
-        notification = notificationRepository.save(notification);
+        if (updated > 0) {
+            unreadCounter.add(notification.getReceiver().getId(), -1);
+            publishUnreadCount(notification.getReceiver().getId());
+        }
 
         return notificationMapper.toResponse(notification);
     }
 
+    /**
+     * Unread count of a user, served from memory once loaded.
+     *
+     * @param receiverId Receiver id
+     * @return Unread count
+     */
     @Override
-    public long countUnreadNotifications(String userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-
-        return notificationRepository.countUnreadNotifications(user);
+    public long countUnreadNotifications(String receiverId) {
+        return unreadCounter.get(receiverId, notificationRepository::countUnreadNotifications);
     }
 
     @Override
     @Transactional
     public void markAllAsRead(String receiverId) {
-        User receiver = userRepository.findById(receiverId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + receiverId));
-
-        // Fetch all notifications for the receiver
-        Page<Notification> notifications = notificationRepository.findByReceiverOrderByCreatedAtDesc(receiver, Pageable.unpaged());
-
-        notifications.forEach(notification -> {
-            notification.setRead(true);
-            notificationRepository.save(notification);
-        });
+        notificationRepository.markAllAsRead(receiverId);
+        unreadCounter.reset(receiverId);
+        publishUnreadCount(receiverId);
     }
 
     @Override
     @Transactional
     public void deleteNotification(String notificationId) {
-        if (!notificationRepository.existsById(notificationId)) {
-            throw new ResourceNotFoundException("Notification not found with id: " + notificationId);
+        Notification notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification not found with id: " + notificationId));
+        notificationRepository.delete(notification);
+        if (!notification.isRead()) {
+            unreadCounter.add(notification.getReceiver().getId(), -1);
+            publishUnreadCount(notification.getReceiver().getId());
         }
-        notificationRepository.deleteById(notificationId);
     }
 
     @Override
@@ -121,5 +216,49 @@ public class NotificationServiceImpl implements NotificationService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + receiverId));
 
         notificationRepository.deleteAllByReceiver(receiver);
+        unreadCounter.reset(receiver.getId());
+        publishUnreadCount(receiver.getId());
+    }
+
+    /**
+     * Open a server-sent event stream of new notifications and unread count changes.
+     * The first event carries the current unread count.
+     *
+     * @param receiverId Receiver id
+     * @return SseEmitter, completes when the connection is closed
+     */
+    @Override
+    public SseEmitter streamNotifications(String receiverId) {
+        return notificationStreams.open(receiverId, countUnreadNotifications(receiverId));
+    }
+
+    // Các sự kiện SSE được đẩy sau commit, sau khi bộ đếm chưa đọc đã được cập nhật
+    private void publishNotification(String receiverId, NotificationResponse notification) {
+        TransactionUtils.afterCommit(() -> {
+            if (notificationStreams.isConnected(receiverId)) {
+                notificationStreams.publishNotification(receiverId, notification);
+                notificationStreams.publishUnreadCount(receiverId, countUnreadNotifications(receiverId));
+            }
+        });
+    }
+
+    private void publishUnreadCount(String receiverId) {
+        TransactionUtils.afterCommit(() -> {
+            if (notificationStreams.isConnected(receiverId)) {
+                notificationStreams.publishUnreadCount(receiverId, countUnreadNotifications(receiverId));
+            }
+        });
+    }
+
+    /**
+     * Correct the in-memory unread counts against the database, one grouped COUNT per batch of users.
+     *
+     * @return Number of counters corrected
+     */
+    @Override
+    public long reconcileUnreadCounters() {
+        return unreadCounter.reconcile(appProperties.getNotification().getUnreadReconcileBatchSize(),
+                receiverIds -> notificationRepository.countUnreadNotifications(receiverIds).stream()
+                        .collect(Collectors.toMap(UnreadCount::getReceiverId, UnreadCount::getUnread)));
     }
 } 
\ No newline at end of file
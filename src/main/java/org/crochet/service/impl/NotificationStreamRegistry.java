@@ -0,0 +1,219 @@
+package org.crochet.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.crochet.payload.response.NotificationResponse;
+import org.crochet.properties.AppProperties;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open server-sent event connections of each user, fed by the notification writes.
+ * <p>
+ * Every connection has its own sink with a bounded buffer, so a slow client never holds back the
+ * others. A connection whose buffer overflows is closed rather than silently losing events; the
+ * client reconnects and receives the current unread count again. Connections send a heartbeat
+ * comment to keep proxies from closing them, are closed after {@code app.notification.stream-max-lifetime-ms},
+ * and are removed from the registry as soon as the client disconnects. Opening more than
+ * {@code app.notification.stream-max-connections-per-user} connections closes the oldest one.
+ * <p>
+ * Each connection is served through an {@link SseEmitter} with its own timeout, just above the
+ * maximum lifetime, so other asynchronous requests keep the default request timeout.
+ */
+@Slf4j
+@Component
+public class NotificationStreamRegistry {
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_UNREAD_COUNT = "unread-count";
+
+    private final Map<String, List<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AppProperties.Notification properties;
+    private final Counter overflowCounter;
+
+    /**
+     * Constructor
+     *
+     * @param appProperties AppProperties
+     * @param meterRegistry MeterRegistry
+     */
+    public NotificationStreamRegistry(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.properties = appProperties.getNotification();
+        this.overflowCounter = meterRegistry.counter("notification.stream.overflow");
+        meterRegistry.gauge("notification.stream.connections", openConnections);
+    }
+
+    /**
+     * Open a connection for a user
+     *
+     * @param userId      User id
+     * @param unreadCount Current unread count, sent as the first event
+     * @return SseEmitter of the connection, completes when the connection is closed
+     */
+    public SseEmitter open(String userId, long unreadCount) {
+        // Timeout riêng của kết nối SSE, dài hơn thời gian sống tối đa một chu kỳ heartbeat
+        SseEmitter emitter = new SseEmitter(properties.getStreamMaxLifetimeMs() + properties.getStreamHeartbeatMs());
+        Disposable subscription = connect(userId, unreadCount).subscribe(
+                event -> send(emitter, event),
+                emitter::completeWithError,
+                emitter::complete);
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        return emitter;
+    }
+
+    private Flux<ServerSentEvent<Object>> connect(String userId, long unreadCount) {
+        Connection connection = new Connection(properties.getStreamBufferSize());
+        register(userId, connection);
+        connection.emit(unreadCountEvent(unreadCount));
+
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(Duration.ofMillis(properties.getStreamHeartbeatMs()))
+                .map(tick -> ServerSentEvent.builder().comment("heartbeat").build());
+        return Flux.merge(connection.events.asFlux(), heartbeats)
+                .takeUntilOther(connection.closed.asMono())
+                .take(Duration.ofMillis(properties.getStreamMaxLifetimeMs()))
+                .doFinally(signal -> unregister(userId, connection));
+    }
+
+    /**
+     * Whether a user has at least one open connection
+     *
+     * @param userId User id
+     * @return true if connected
+     */
+    public boolean isConnected(String userId) {
+        return connections.containsKey(userId);
+    }
+
+    /**
+     * Push a new notification to the open connections of a user
+     *
+     * @param userId       User id
+     * @param notification NotificationResponse
+     */
+    public void publishNotification(String userId, NotificationResponse notification) {
+        publish(userId, ServerSentEvent.builder()
+                .id(notification.getId())
+                .event(EVENT_NOTIFICATION)
+                .data(notification)
+                .build());
+    }
+
+    /**
+     * Push the unread count to the open connections of a user
+     *
+     * @param userId      User id
+     * @param unreadCount Unread count
+     */
+    public void publishUnreadCount(String userId, long unreadCount) {
+        publish(userId, unreadCountEvent(unreadCount));
+    }
+
+    private void publish(String userId, ServerSentEvent<Object> event) {
+        List<Connection> userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+        for (Connection connection : userConnections) {
+            if (!connection.emit(event)) {
+                overflowCounter.increment();
+                log.debug("Closing notification stream of user {} after its buffer overflowed", userId);
+                connection.close();
+            }
+        }
+    }
+
+    private void register(String userId, Connection connection) {
+        Connection[] evicted = new Connection[1];
+        connections.compute(userId, (key, userConnections) -> {
+            List<Connection> updated = userConnections != null ? userConnections : new CopyOnWriteArrayList<>();
+            if (updated.size() >= properties.getStreamMaxConnectionsPerUser()) {
+                evicted[0] = updated.removeFirst();
+            }
+            updated.add(connection);
+            return updated;
+        });
+        openConnections.incrementAndGet();
+        if (evicted[0] != null) {
+            evicted[0].close();
+        }
+    }
+
+    private void unregister(String userId, Connection connection) {
+        connections.computeIfPresent(userId, (key, userConnections) -> {
+            if (userConnections.remove(connection)) {
+                openConnections.decrementAndGet();
+            }
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    // Các sự kiện được gửi tuần tự vì Flux.merge không phát onNext đồng thời
+    private static void send(SseEmitter emitter, ServerSentEvent<Object> event) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (event.id() != null) {
+            builder.id(event.id());
+        }
+        if (event.event() != null) {
+            builder.name(event.event());
+        }
+        if (event.comment() != null) {
+            builder.comment(event.comment());
+        }
+        if (event.data() != null) {
+            builder.data(event.data());
+        }
+        try {
+            emitter.send(builder);
+        } catch (IOException | IllegalStateException e) {
+            // Client đã ngắt kết nối: đóng emitter, subscription được hủy trong callback
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static ServerSentEvent<Object> unreadCountEvent(long unreadCount) {
+        return ServerSentEvent.builder()
+                .event(EVENT_UNREAD_COUNT)
+                .data(unreadCount)
+                .build();
+    }
+
+    /**
+     * One open connection: a bounded event buffer and a signal that closes the stream.
+     */
+    private static final class Connection {
+        private final Sinks.Many<ServerSentEvent<Object>> events;
+        private final Sinks.One<Boolean> closed = Sinks.one();
+
+        private Connection(int bufferSize) {
+            this.events = Sinks.many().unicast()
+                    .onBackpressureBuffer(Queues.<ServerSentEvent<Object>>get(bufferSize).get());
+        }
+
+        // Sinks không cho phép emit đồng thời, nên các lần emit của một kết nối được tuần tự hóa
+        private synchronized boolean emit(ServerSentEvent<Object> event) {
+            Sinks.EmitResult result = events.tryEmitNext(event);
+            return result.isSuccess() || result == Sinks.EmitResult.FAIL_TERMINATED
+                    || result == Sinks.EmitResult.FAIL_CANCELLED;
+        }
+
+        private void close() {
+            closed.tryEmitValue(Boolean.TRUE);
+        }
+    }
+}
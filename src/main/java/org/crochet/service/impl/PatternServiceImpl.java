@@ -4,6 +4,7 @@ import com.turkraft.springfilter.converter.FilterSpecification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.crochet.enums.ResultCode;
+import org.crochet.enums.SearchType;
 import org.crochet.exception.ResourceNotFoundException;
 import org.crochet.mapper.FileMapper;
 import org.crochet.mapper.PaginationMapper;
@@ -45,6 +46,7 @@ public class PatternServiceImpl implements PatternService {
     private final SettingsUtil settingsUtil;
     private final PermissionService permissionService;
     private final CategoryService categoryService;
+    private final SearchIndex searchIndex;
 
     /**
      * Create or update pattern
@@ -77,7 +79,8 @@ public class PatternServiceImpl implements PatternService {
             pattern = PatternMapper.INSTANCE.partialUpdate(request, pattern);
         }
 
-        patternRepo.save(pattern);
+        pattern = patternRepo.save(pattern);
+        searchIndex.put(SearchType.PATTERN, pattern.getId(), pattern.getName(), pattern.getDescription());
     }
 
     /**
@@ -193,5 +196,6 @@ public class PatternServiceImpl implements PatternService {
     @Override
     public void deletePattern(String id) {
         patternRepo.deleteById(id);
+        searchIndex.remove(SearchType.PATTERN, List.of(id));
     }
 }
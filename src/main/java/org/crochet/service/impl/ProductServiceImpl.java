@@ -4,6 +4,7 @@ import com.turkraft.springfilter.converter.FilterSpecification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.crochet.enums.ResultCode;
+import org.crochet.enums.SearchType;
 import org.crochet.exception.ResourceNotFoundException;
 import org.crochet.mapper.FileMapper;
 import org.crochet.mapper.PaginationMapper;
@@ -13,7 +14,6 @@ import org.crochet.model.Settings;
 import org.crochet.payload.request.ProductRequest;
 import org.crochet.payload.response.PaginationResponse;
 import org.crochet.payload.response.ProductResponse;
-import org.crochet.repository.CommentRepository;
 import org.crochet.repository.ProductRepository;
 import org.crochet.repository.ProductSpecifications;
 import org.crochet.service.CategoryService;
@@ -44,7 +44,7 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepo;
     private final CategoryService categoryService;
     private final SettingsUtil settingsUtil;
-    private final CommentRepository commentRepository;
+    private final SearchIndex searchIndex;
 
     /**
      * Creates a new product or updates an existing one based on the provided
@@ -78,7 +78,8 @@ public class ProductServiceImpl implements ProductService {
             product = findById(request.getId());
             product = ProductMapper.INSTANCE.update(request, product);
         }
-        productRepo.save(product);
+        product = productRepo.save(product);
+        searchIndex.put(SearchType.PRODUCT, product.getId(), product.getName(), product.getDescription());
     }
 
     /**
@@ -172,13 +173,7 @@ public class ProductServiceImpl implements ProductService {
     @Transactional(readOnly = true)
     public ProductResponse getDetail(String id) {
         var product = findById(id);
-        ProductResponse response = ProductMapper.INSTANCE.toResponse(product);
-        
-        // Thêm số lượng comments
-        long commentCount = commentRepository.countByProductId(id);
-        response.setCommentCount(commentCount);
-        
-        return response;
+        return ProductMapper.INSTANCE.toResponse(product);
     }
 
     @Override
@@ -199,6 +194,7 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public void delete(String id) {
         productRepo.deleteById(id);
+        searchIndex.remove(SearchType.PRODUCT, List.of(id));
     }
 
     /**
@@ -210,5 +206,6 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public void deleteMultiple(List<String> ids) {
         productRepo.deleteMultiple(ids);
+        searchIndex.remove(SearchType.PRODUCT, ids);
     }
 }
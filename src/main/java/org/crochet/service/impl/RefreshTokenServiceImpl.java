@@ -39,7 +39,7 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     }
 
     /**
-     * Create a refresh token for a user
+     * Create a refresh token for a user and revoke the user's other refresh tokens
      *
      * @param username String
      * @return RefreshToken
@@ -47,18 +47,10 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     @Transactional
     @Override
     public RefreshToken createRefreshToken(String username) {
-        var user = userRepository.findById(username)
-                .orElseThrow(() -> new ResourceNotFoundException(ResultCode.MSG_USER_NOT_FOUND_WITH_EMAIL.message(),
-                        ResultCode.MSG_USER_NOT_FOUND_WITH_EMAIL.code()));
         LocalDateTime now = LocalDateTime.now();
         var expiryDate = now.plus(appProps.getAuth().getRefreshTokenExpirationMs(), ChronoUnit.MILLIS);
-        var refreshToken = RefreshToken.builder()
-                .token(UUID.randomUUID().toString())
-                .expiresAt(expiryDate)
-                .user(user)
-                .build();
-        revokeRefreshToken(user);
-        return refreshTokenRepo.save(refreshToken);
+        refreshTokenRepo.revokeAllByUserId(username);
+        return issue(userRepository.getReferenceById(username), expiryDate);
     }
 
     /**
@@ -87,46 +79,65 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     }
 
     /**
-     * Delete a refresh token
+     * Exchange a refresh token for a new one.
+     * <p>
+     * The presented token is revoked with a conditional update, so only one caller can rotate it.
+     * Presenting a token that was already rotated is treated as reuse of a stolen token and revokes
+     * every refresh token of the user. The new token keeps the expiry of the session it replaces.
      *
-     * @param token RefreshToken
+     * @param token String
+     * @return The new refresh token, with its user loaded
      */
+    @Transactional(noRollbackFor = TokenException.class)
     @Override
-    public void revokeByToken(String token) {
-        var refreshToken = findByToken(token)
-                .orElseThrow(() -> new ResourceNotFoundException(ResultCode.MSG_REFRESH_TOKEN_NOT_FOUND.message(),
-                        ResultCode.MSG_REFRESH_TOKEN_NOT_FOUND.code()));
-        refreshToken.setRevoked(true);
-        refreshTokenRepo.save(refreshToken);
+    public RefreshToken rotateRefreshToken(String token) {
+        var current = findByToken(token)
+                .orElseThrow(() -> new ResourceNotFoundException(ResultCode.REFRESH_TOKEN_NOT_IN_DB.message(),
+                        ResultCode.REFRESH_TOKEN_NOT_IN_DB.code()));
+        var user = current.getUser();
+        LocalDateTime now = LocalDateTime.now();
+
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new TokenException(ResultCode.MSG_REFRESH_TOKEN_EXPIRED.message(),
+                    ResultCode.MSG_REFRESH_TOKEN_EXPIRED.code());
+        }
+
+        if (current.isRevoked() || refreshTokenRepo.revokeIfActive(token, now) == 0) {
+            refreshTokenRepo.revokeAllByUserId(user.getId());
+            throw new TokenException(ResultCode.MSG_REFRESH_TOKEN_REUSED.message(),
+                    ResultCode.MSG_REFRESH_TOKEN_REUSED.code());
+        }
+
+        return issue(user, current.getExpiresAt());
     }
 
     /**
-     * Delete a refresh token
+     * Revoke a refresh token
      *
-     * @param user User
+     * @param token RefreshToken
      */
-    private void revokeRefreshToken(User user) {
-        var validRefreshTokens = refreshTokenRepo.findAllValidRefreshTokenByUser(user);
-        if (validRefreshTokens.isEmpty()) {
-            return;
+    @Transactional
+    @Override
+    public void revokeByToken(String token) {
+        if (refreshTokenRepo.revokeByToken(token) == 0) {
+            throw new ResourceNotFoundException(ResultCode.MSG_REFRESH_TOKEN_NOT_FOUND.message(),
+                    ResultCode.MSG_REFRESH_TOKEN_NOT_FOUND.code());
         }
-        validRefreshTokens.forEach(token -> {
-            token.setRevoked(true);
-            refreshTokenRepo.save(token);
-        });
     }
 
     /**
-     * Delete expired and revoked refresh tokens
+     * Save a new refresh token for a user
+     *
+     * @param user      User
+     * @param expiresAt Expiry of the token
+     * @return RefreshToken
      */
-    @Override
-    @Transactional
-    public void deleteExpiredRefreshTokens() {
-        var refreshTokens = refreshTokenRepo.findAll()
-                .stream()
-                .filter(RefreshToken::isRevoked)
-                .filter(token -> token.getExpiresAt().isBefore(LocalDateTime.now()))
-                .toList();
-        refreshTokenRepo.deleteAll(refreshTokens);
+    private RefreshToken issue(User user, LocalDateTime expiresAt) {
+        var refreshToken = RefreshToken.builder()
+                .token(UUID.randomUUID().toString())
+                .expiresAt(expiresAt)
+                .user(user)
+                .build();
+        return refreshTokenRepo.save(refreshToken);
     }
 }
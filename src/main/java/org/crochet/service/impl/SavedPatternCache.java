@@ -0,0 +1,95 @@
+package org.crochet.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.crochet.properties.AppProperties;
+import org.crochet.util.TransactionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Ids of the free patterns saved in any collection of a user, keyed by user id.
+ * <p>
+ * The set of a user is loaded with one query on first use and then kept current by the collection
+ * writes after their transaction commits, so {@code inCollection} of a listing is a membership test
+ * without any query. Sets are immutable and replaced on change, so readers never need a lock.
+ * Idle users are dropped and reloaded on demand. Sets are also reloaded a fixed time after they were
+ * last written, so a load that read a snapshot taken before a concurrent save does not stay wrong for
+ * an active user. Metrics are published as
+ * {@code cache.*{cache=savedPatterns}}.
+ */
+@Component
+public class SavedPatternCache {
+    private final Cache<String, Set<String>> savedPatterns;
+
+    /**
+     * Constructor
+     *
+     * @param appProperties AppProperties
+     * @param meterRegistry MeterRegistry
+     */
+    public SavedPatternCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        var properties = appProperties.getCollection();
+        this.savedPatterns = Caffeine.newBuilder()
+                .maximumSize(properties.getSavedPatternCacheSize())
+                .expireAfterAccess(properties.getSavedPatternCacheIdleMs(), TimeUnit.MILLISECONDS)
+                .expireAfterWrite(properties.getSavedPatternCacheTtlMs(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, savedPatterns, "savedPatterns");
+    }
+
+    /**
+     * Get the saved free pattern ids of a user, loading them on a miss
+     *
+     * @param userId User id
+     * @param loader Loads the saved free pattern ids of the user
+     * @return Immutable set of free pattern ids
+     */
+    public Set<String> get(String userId, Function<String, Set<String>> loader) {
+        return savedPatterns.get(userId, id -> Set.copyOf(loader.apply(id)));
+    }
+
+    /**
+     * Add a saved free pattern once the transaction commits
+     *
+     * @param userId        User id
+     * @param freePatternId Free pattern id
+     */
+    public void add(String userId, String freePatternId) {
+        TransactionUtils.afterCommit(() -> savedPatterns.asMap().computeIfPresent(userId, (k, ids) -> {
+            Set<String> updated = new HashSet<>(ids);
+            updated.add(freePatternId);
+            return Set.copyOf(updated);
+        }));
+    }
+
+    /**
+     * Remove a saved free pattern once the transaction commits
+     *
+     * @param userId        User id
+     * @param freePatternId Free pattern id
+     */
+    public void remove(String userId, String freePatternId) {
+        TransactionUtils.afterCommit(() -> savedPatterns.asMap().computeIfPresent(userId, (k, ids) -> {
+            Set<String> updated = new HashSet<>(ids);
+            updated.remove(freePatternId);
+            return Set.copyOf(updated);
+        }));
+    }
+
+    /**
+     * Drop the saved free patterns of a user once the transaction commits
+     *
+     * @param userId User id
+     */
+    public void invalidate(String userId) {
+        TransactionUtils.afterCommit(() -> savedPatterns.invalidate(userId));
+    }
+}
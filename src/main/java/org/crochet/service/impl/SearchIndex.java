@@ -0,0 +1,259 @@
+package org.crochet.service.impl;
+
+import org.crochet.enums.SearchType;
+import org.crochet.properties.AppProperties;
+import org.crochet.util.SearchUtils;
+import org.crochet.util.TransactionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index of the searchable text of free patterns, patterns, products and blog posts.
+ * <p>
+ * Each type has its own index: a sorted term dictionary mapping every term to the documents that
+ * contain it with a weighted term frequency, so a query only touches the postings of its own terms
+ * and its latency does not grow with the tables. Terms are folded to lower case without diacritics.
+ * Title terms weigh three times body terms, results are ranked with BM25 and the last query word
+ * also matches as a prefix, for search as you type.
+ * <p>
+ * The index is built at startup by {@code SearchIndexLoader} and kept current by the service writes
+ * after their transaction commits. Ids removed while a type is being built are remembered until the
+ * build finishes, so a row read by the build just before its delete committed is not indexed again.
+ */
+@Component
+public class SearchIndex {
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float BODY_WEIGHT = 1f;
+    // Điểm của các term chỉ khớp theo tiền tố thấp hơn term khớp chính xác
+    private static final float PREFIX_BOOST = 0.5f;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<SearchType, InvertedIndex> indexes = new EnumMap<>(SearchType.class);
+    private final int maxPrefixTerms;
+
+    /**
+     * Constructor
+     *
+     * @param appProperties AppProperties
+     */
+    public SearchIndex(AppProperties appProperties) {
+        this.maxPrefixTerms = appProperties.getSearch().getMaxPrefixTerms();
+        for (SearchType type : SearchType.values()) {
+            indexes.put(type, new InvertedIndex());
+        }
+    }
+
+    /**
+     * Index or re-index a document once the transaction commits
+     *
+     * @param type  SearchType
+     * @param id    Document id
+     * @param title Title text
+     * @param body  Body text, may contain HTML
+     */
+    public void put(SearchType type, String id, String title, String body) {
+        var terms = terms(title, body);
+        TransactionUtils.afterCommit(() -> indexes.get(type).put(id, terms, false));
+    }
+
+    /**
+     * Start remembering the ids removed from a type, before the startup build reads its first row
+     *
+     * @param type SearchType
+     */
+    public void startBuild(SearchType type) {
+        indexes.get(type).startBuild();
+    }
+
+    /**
+     * Forget the ids removed while the startup build of a type ran
+     *
+     * @param type SearchType
+     */
+    public void finishBuild(SearchType type) {
+        indexes.get(type).finishBuild();
+    }
+
+    /**
+     * Index a document read by the startup build, unless a write has already indexed or removed it
+     *
+     * @param type  SearchType
+     * @param id    Document id
+     * @param title Title text
+     * @param body  Body text, may contain HTML
+     */
+    public void load(SearchType type, String id, String title, String body) {
+        indexes.get(type).put(id, terms(title, body), true);
+    }
+
+    /**
+     * Remove documents once the transaction commits
+     *
+     * @param type SearchType
+     * @param ids  Document ids
+     */
+    public void remove(SearchType type, Collection<String> ids) {
+        TransactionUtils.afterCommit(() -> ids.forEach(indexes.get(type)::delete));
+    }
+
+    /**
+     * Number of indexed documents of a type
+     *
+     * @param type SearchType
+     * @return Document count
+     */
+    public int size(SearchType type) {
+        return indexes.get(type).documents.size();
+    }
+
+    /**
+     * Find the documents of a type matching a query, best match first
+     *
+     * @param type  SearchType
+     * @param query Query text
+     * @param limit Maximum number of ids
+     * @return Document ids
+     */
+    public List<String> search(SearchType type, String query, int limit) {
+        return indexes.get(type).search(SearchUtils.tokenize(query), limit, maxPrefixTerms);
+    }
+
+    private static Map<String, Float> terms(String title, String body) {
+        Map<String, Float> terms = new HashMap<>();
+        SearchUtils.tokenize(title).forEach(term -> terms.merge(term, TITLE_WEIGHT, Float::sum));
+        SearchUtils.tokenize(body).forEach(term -> terms.merge(term, BODY_WEIGHT, Float::sum));
+        return terms;
+    }
+
+    /**
+     * Inverted index of one type. Writes are serialized; searches read the concurrent maps
+     * without locking and may observe a document that is being re-indexed in either state.
+     */
+    private static final class InvertedIndex {
+        private final ConcurrentSkipListMap<String, Map<String, Float>> postings = new ConcurrentSkipListMap<>();
+        private final Map<String, Document> documents = new ConcurrentHashMap<>();
+        private volatile double totalLength;
+        // Id bị xóa trong lúc build đang chạy, null khi không build
+        private Set<String> removedDuringBuild;
+
+        private synchronized void startBuild() {
+            removedDuringBuild = new HashSet<>();
+        }
+
+        private synchronized void finishBuild() {
+            removedDuringBuild = null;
+        }
+
+        private synchronized void put(String id, Map<String, Float> terms, boolean onlyIfAbsent) {
+            if (onlyIfAbsent && (documents.containsKey(id)
+                    || removedDuringBuild != null && removedDuringBuild.contains(id))) {
+                return;
+            }
+            remove(id);
+            var document = new Document(terms);
+            documents.put(id, document);
+            totalLength += document.length;
+            terms.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, k -> new ConcurrentHashMap<>()).put(id, weight));
+        }
+
+        private synchronized void delete(String id) {
+            if (removedDuringBuild != null) {
+                removedDuringBuild.add(id);
+            }
+            remove(id);
+        }
+
+        private synchronized void remove(String id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            totalLength -= document.length;
+            for (String term : document.terms.keySet()) {
+                postings.computeIfPresent(term, (k, docs) -> {
+                    docs.remove(id);
+                    return docs.isEmpty() ? null : docs;
+                });
+            }
+        }
+
+        private List<String> search(List<String> tokens, int limit, int maxPrefixTerms) {
+            int documentCount = documents.size();
+            if (tokens.isEmpty() || documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = Math.max(totalLength / documentCount, 1);
+
+            Map<String, Double> scores = new HashMap<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                Map<String, Map<String, Float>> matches;
+                if (i == tokens.size() - 1) {
+                    // Từ cuối cùng có thể đang gõ dở, nên khớp theo tiền tố
+                    NavigableMap<String, Map<String, Float>> prefixed =
+                            postings.subMap(token, true, token + Character.MAX_VALUE, true);
+                    matches = new HashMap<>();
+                    for (var entry : prefixed.entrySet()) {
+                        if (matches.size() >= maxPrefixTerms) {
+                            break;
+                        }
+                        matches.put(entry.getKey(), entry.getValue());
+                    }
+                } else {
+                    Map<String, Float> docs = postings.get(token);
+                    matches = docs != null ? Map.of(token, docs) : Map.of();
+                }
+
+                for (var match : matches.entrySet()) {
+                    double boost = match.getKey().equals(token) ? 1 : PREFIX_BOOST;
+                    int documentFrequency = match.getValue().size();
+                    double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                    for (var posting : match.getValue().entrySet()) {
+                        Document document = documents.get(posting.getKey());
+                        if (document == null) {
+                            continue;
+                        }
+                        double tf = posting.getValue();
+                        double norm = tf * (K1 + 1) / (tf + K1 * (1 - B + B * document.length / averageLength));
+                        scores.merge(posting.getKey(), boost * idf * norm, Double::sum);
+                    }
+                }
+            }
+
+            List<Map.Entry<String, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            return ranked.stream()
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+    }
+
+    /**
+     * Weighted terms of an indexed document.
+     */
+    private static final class Document {
+        private final Map<String, Float> terms;
+        private final double length;
+
+        private Document(Map<String, Float> terms) {
+            this.terms = terms;
+            this.length = terms.values().stream().mapToDouble(Float::doubleValue).sum();
+        }
+    }
+}
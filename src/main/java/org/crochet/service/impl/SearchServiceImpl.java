@@ -0,0 +1,60 @@
+package org.crochet.service.impl;
+
+import org.crochet.enums.ResultCode;
+import org.crochet.enums.SearchType;
+import org.crochet.exception.BadRequestException;
+import org.crochet.properties.AppProperties;
+import org.crochet.service.SearchService;
+import org.crochet.util.ObjectUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class SearchServiceImpl implements SearchService {
+    private final SearchIndex searchIndex;
+    private final AppProperties.Search properties;
+
+    /**
+     * Constructor
+     *
+     * @param searchIndex   SearchIndex
+     * @param appProperties AppProperties
+     */
+    public SearchServiceImpl(SearchIndex searchIndex, AppProperties appProperties) {
+        this.searchIndex = searchIndex;
+        this.properties = appProperties.getSearch();
+    }
+
+    /**
+     * Search the catalog without touching the database. The ids are ranked best match first and can
+     * be passed to the listing projections of each type.
+     *
+     * @param query Query text, diacritics are ignored
+     * @param type  Type path ("free-pattern", "pattern", "product", "blog"), or null for every type
+     * @param limit Maximum number of ids per type
+     * @return Ranked ids keyed by type path
+     */
+    @Override
+    public Map<String, List<String>> search(String query, String type, int limit) {
+        int size = Math.clamp(limit, 1, properties.getMaxResults());
+        Map<String, List<String>> results = new LinkedHashMap<>();
+        if (ObjectUtils.hasText(type)) {
+            SearchType searchType = SearchType.fromPath(type);
+            if (searchType == null) {
+                throw new BadRequestException(
+                        ResultCode.MSG_INVALID_SEARCH_TYPE.message(),
+                        ResultCode.MSG_INVALID_SEARCH_TYPE.code()
+                );
+            }
+            results.put(searchType.getPath(), searchIndex.search(searchType, query, size));
+            return results;
+        }
+        for (SearchType searchType : SearchType.values()) {
+            results.put(searchType.getPath(), searchIndex.search(searchType, query, size));
+        }
+        return results;
+    }
+}
@@ -1,16 +1,37 @@
 package org.crochet.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.crochet.model.TokenBlacklist;
 import org.crochet.repository.TokenBlacklistRepo;
 import org.crochet.service.TokenBlacklistService;
+import org.crochet.util.TokenUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
+/**
+ * Token blacklist backed by the token_blacklist table.
+ * <p>
+ * Revoked tokens are stored as SHA-256 digests together with their expiry. Every instance keeps the
+ * digests of the tokens that are still alive in memory, so checking a token never hits the database.
+ * New rows written by other instances are picked up by {@link #refreshBlacklist()}, which bounds the
+ * delay before a logout takes effect everywhere to the sync interval.
+ */
+@Slf4j
 @Service
 public class TokenBlacklistServiceImpl implements TokenBlacklistService {
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
     private final TokenBlacklistRepo tokenBlacklistRepo;
+    private final Cache<String, LocalDateTime> revokedDigests;
+    private volatile LocalDateTime lastSyncAt;
 
     /**
      * Constructor
@@ -19,20 +40,59 @@ public class TokenBlacklistServiceImpl implements TokenBlacklistService {
      */
     public TokenBlacklistServiceImpl(TokenBlacklistRepo tokenBlacklistRepo) {
         this.tokenBlacklistRepo = tokenBlacklistRepo;
+        this.revokedDigests = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, LocalDateTime>() {
+                    @Override
+                    public long expireAfterCreate(String key, LocalDateTime expiresAt, long currentTime) {
+                        return Math.max(0, Duration.between(LocalDateTime.now(), expiresAt).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, LocalDateTime expiresAt, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, expiresAt, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, LocalDateTime expiresAt, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Load the digests of all revoked tokens that have not expired yet
+     */
+    @PostConstruct
+    void loadBlacklist() {
+        LocalDateTime now = LocalDateTime.now();
+        cache(tokenBlacklistRepo.findByExpiresAtAfter(now));
+        lastSyncAt = now;
+        log.info("Loaded {} blacklisted tokens", revokedDigests.estimatedSize());
     }
 
     /**
      * Add a token to the blacklist
      *
-     * @param token String
+     * @param token     String
+     * @param expiresAt Expiration of the token
      */
     @Transactional
     @Override
-    public void addTokenToBlacklist(String token) {
+    public void addTokenToBlacklist(String token, LocalDateTime expiresAt) {
+        String digest = TokenUtils.digest(token);
+        if (isDigestBlacklisted(digest) || tokenBlacklistRepo.existsByTokenHash(digest)) {
+            revokedDigests.put(digest, expiresAt);
+            return;
+        }
         TokenBlacklist tokenBlacklist = new TokenBlacklist();
-        tokenBlacklist.setToken(token);
+        tokenBlacklist.setTokenHash(digest);
         tokenBlacklist.setBlacklistedAt(LocalDateTime.now());
+        tokenBlacklist.setExpiresAt(expiresAt);
         tokenBlacklistRepo.save(tokenBlacklist);
+        revokedDigests.put(digest, expiresAt);
     }
 
     /**
@@ -43,6 +103,32 @@ public class TokenBlacklistServiceImpl implements TokenBlacklistService {
      */
     @Override
     public boolean isTokenBlacklisted(String token) {
-        return tokenBlacklistRepo.findByToken(token).isPresent();
+        return isDigestBlacklisted(TokenUtils.digest(token));
+    }
+
+    /**
+     * Check if a token is blacklisted by its digest
+     *
+     * @param tokenDigest SHA-256 digest of the token
+     * @return boolean
+     */
+    @Override
+    public boolean isDigestBlacklisted(String tokenDigest) {
+        return revokedDigests.getIfPresent(tokenDigest) != null;
+    }
+
+    /**
+     * Pick up tokens blacklisted by other instances since the last sync
+     */
+    @Override
+    public void refreshBlacklist() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSyncAt.minus(SYNC_OVERLAP);
+        cache(tokenBlacklistRepo.findByBlacklistedAtAfterAndExpiresAtAfter(since, now));
+        lastSyncAt = now;
+    }
+
+    private void cache(List<TokenBlacklist> tokens) {
+        tokens.forEach(token -> revokedDigests.put(token.getTokenHash(), token.getExpiresAt()));
     }
 }
@@ -0,0 +1,124 @@
+package org.crochet.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.crochet.properties.AppProperties;
+import org.crochet.util.TransactionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory unread notification count of each user, so badge polling never reaches the database.
+ * <p>
+ * Each user has an independent atomic counter in a concurrent map, so updates for different users
+ * never contend. A counter is loaded from the database on first read and then kept current by the
+ * notification writes after their transaction commits. Writes that bypass the service, such as the
+ * retention job or comment deletion, are corrected by {@link #reconcile}. Idle counters are dropped
+ * and reloaded on demand. Metrics are published as {@code cache.*{cache=unreadNotifications}}.
+ */
+@Component
+public class UnreadNotificationCounter {
+    private final Cache<String, AtomicLong> counters;
+
+    /**
+     * Constructor
+     *
+     * @param appProperties AppProperties
+     * @param meterRegistry MeterRegistry
+     */
+    public UnreadNotificationCounter(AppProperties appProperties, MeterRegistry meterRegistry) {
+        var properties = appProperties.getNotification();
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(properties.getUnreadCounterSize())
+                .expireAfterAccess(properties.getUnreadCounterIdleMs(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counters, "unreadNotifications");
+    }
+
+    /**
+     * Get the unread count of a user, loading it on a miss
+     *
+     * @param receiverId Receiver id
+     * @param loader     Counts the unread notifications of the receiver in the database
+     * @return Unread count
+     */
+    public long get(String receiverId, ToLongFunction<String> loader) {
+        return counters.get(receiverId, id -> new AtomicLong(loader.applyAsLong(id))).get();
+    }
+
+    /**
+     * Change the unread count of a user once the transaction commits.
+     * Users without a loaded counter are skipped, their count is read from the database on demand.
+     *
+     * @param receiverId Receiver id
+     * @param delta      Change of the unread count
+     */
+    public void add(String receiverId, long delta) {
+        TransactionUtils.afterCommit(() -> {
+            AtomicLong counter = counters.getIfPresent(receiverId);
+            if (counter != null) {
+                counter.updateAndGet(value -> Math.max(0, value + delta));
+            }
+        });
+    }
+
+    /**
+     * Set the unread count of a user to zero once the transaction commits
+     *
+     * @param receiverId Receiver id
+     */
+    public void reset(String receiverId) {
+        TransactionUtils.afterCommit(() -> counters.get(receiverId, id -> new AtomicLong()).set(0));
+    }
+
+    /**
+     * Correct every loaded counter against the database.
+     * <p>
+     * A counter is only corrected if it has not changed while its user was counted, so a concurrent
+     * update is never overwritten; such a counter is corrected on the next run instead.
+     *
+     * @param batchSize Users counted per query
+     * @param loader    Counts the unread notifications of several receivers, receivers without
+     *                  unread notifications may be absent
+     * @return Number of counters corrected
+     */
+    public long reconcile(int batchSize, Function<List<String>, Map<String, Long>> loader) {
+        List<String> receiverIds = new ArrayList<>(counters.asMap().keySet());
+        long corrected = 0;
+        for (int from = 0; from < receiverIds.size(); from += batchSize) {
+            List<String> batch = receiverIds.subList(from, Math.min(from + batchSize, receiverIds.size()));
+            Map<String, Long> stored = new HashMap<>();
+            for (String receiverId : batch) {
+                AtomicLong counter = counters.asMap().get(receiverId);
+                if (counter != null) {
+                    stored.put(receiverId, counter.get());
+                }
+            }
+            if (stored.isEmpty()) {
+                continue;
+            }
+
+            Map<String, Long> actual = loader.apply(new ArrayList<>(stored.keySet()));
+            for (var entry : stored.entrySet()) {
+                long actualCount = actual.getOrDefault(entry.getKey(), 0L);
+                AtomicLong counter = counters.asMap().get(entry.getKey());
+                if (actualCount != entry.getValue() && counter != null
+                        && counter.compareAndSet(entry.getValue(), actualCount)) {
+                    corrected++;
+                }
+            }
+        }
+        return corrected;
+    }
+}
@@ -77,11 +77,15 @@ public class UserProfileServiceImpl implements UserProfileService {
     @Transactional
     @Override
     public UserProfileResponse updateUserProfile(UserProfileRequest request) {
-        var user = SecurityUtils.getCurrentUser();
-        if (user == null) {
+        var currentUser = SecurityUtils.getCurrentUser();
+        if (currentUser == null) {
             throw new ResourceNotFoundException(ResultCode.MSG_USER_NOT_FOUND.message(),
                     ResultCode.MSG_USER_NOT_FOUND.code());
         }
+        // The principal is a lightweight snapshot, load the managed user before modifying it
+        var user = userRepo.findById(currentUser.getId())
+                .orElseThrow(() -> new ResourceNotFoundException(ResultCode.MSG_USER_NOT_FOUND.message(),
+                        ResultCode.MSG_USER_NOT_FOUND.code()));
 
         // Update profile info
         var userProfile = user.getUserProfile();
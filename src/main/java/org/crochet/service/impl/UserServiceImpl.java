@@ -14,13 +14,14 @@ import org.crochet.payload.request.UserUpdateRequest;
 import org.crochet.payload.response.PaginationResponse;
 import org.crochet.payload.response.UserResponse;
 import org.crochet.repository.UserRepository;
+import org.crochet.security.PasswordHasher;
+import org.crochet.security.PrincipalCache;
 import org.crochet.service.UserService;
 import org.crochet.util.ObjectUtils;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,18 +30,22 @@ import java.util.List;
 @Service
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final PrincipalCache principalCache;
 
     /**
      * Constructor for the UserServiceImpl class.
      *
      * @param userRepository  The repository for the User entity.
-     * @param passwordEncoder The password encoder.
+     * @param passwordHasher  The password hasher.
+     * @param principalCache  The cache of authenticated principals.
      */
     public UserServiceImpl(UserRepository userRepository,
-                           PasswordEncoder passwordEncoder) {
+                           PasswordHasher passwordHasher,
+                           PrincipalCache principalCache) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.principalCache = principalCache;
     }
 
     /**
@@ -64,7 +69,7 @@ public class UserServiceImpl implements UserService {
                 .name(signUpRequest.getName())
                 .email(signUpRequest.getEmail())
                 .emailVerified(false)
-                .password(passwordEncoder.encode(signUpRequest.getPassword()))
+                .password(passwordHasher.encode(signUpRequest.getPassword()))
                 .provider(AuthProvider.LOCAL)
                 .role(RoleType.USER)
                 .build();
@@ -119,6 +124,7 @@ public class UserServiceImpl implements UserService {
             user.setRole(request.getRole());
         }
         userRepository.save(user);
+        principalCache.invalidate(user.getId());
     }
 
     /**
@@ -130,6 +136,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(String id) {
         userRepository.deleteById(id);
+        principalCache.invalidate(id);
     }
 
     /**
@@ -141,6 +148,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteMultipleUsers(List<String> ids) {
         userRepository.deleteMultipleUsers(ids);
+        principalCache.invalidateAll(ids);
     }
 
     /**
@@ -191,7 +199,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public void updatePassword(String password, String email) {
         var user = getByEmail(email);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(passwordHasher.encode(password));
         userRepository.save(user);
     }
 
@@ -205,6 +213,7 @@ public class UserServiceImpl implements UserService {
         var user = getByEmail(email);
         user.setEmailVerified(true);
         userRepository.save(user);
+        principalCache.invalidate(user.getId());
     }
 
     /**
@@ -217,13 +226,18 @@ public class UserServiceImpl implements UserService {
     @Override
     public User validateUserCredentials(String email, String password) {
         var user = this.getByEmail(email);
-        var isMatch = passwordEncoder.matches(password, user.getPassword());
+        var isMatch = passwordHasher.matches(password, user.getPassword());
         if (!isMatch) {
             throw new BadRequestException(
                     ResultCode.MSG_INCORRECT_PASSWORD.message(),
                     ResultCode.MSG_INCORRECT_PASSWORD.code()
             );
         }
+        // Re-hash with the current cost while the raw password is at hand
+        if (passwordHasher.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordHasher.encode(password));
+            user = userRepository.save(user);
+        }
         return user;
     }
 
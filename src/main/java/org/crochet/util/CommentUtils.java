@@ -1,35 +1,47 @@
 package org.crochet.util;
 
 import lombok.experimental.UtilityClass;
+import org.crochet.enums.CommentTarget;
 import org.crochet.model.Comment;
 
 @UtilityClass
 public class CommentUtils {
 
-    public String getLink(Comment comment) {
-        if (comment != null) {
-            if (comment.getBlogPost() != null) {
-                return "/blogs/" + comment.getBlogPost().getId();
-            } else if (comment.getFreePattern() != null) {
-                return "/free-patterns/" + comment.getFreePattern().getId();
-            } else {
-                return "/shop/" + comment.getProduct().getId();
-            }
+    public CommentTarget getTarget(Comment comment) {
+        if (comment.getBlogPost() != null) {
+            return CommentTarget.BLOG_POST;
+        } else if (comment.getFreePattern() != null) {
+            return CommentTarget.FREE_PATTERN;
+        } else if (comment.getProduct() != null) {
+            return CommentTarget.PRODUCT;
         }
         return null;
     }
 
-    public String getMessage(Comment comment) {
-        if (comment != null) {
-            var username = comment.getUser().getName();
-            if (comment.getBlogPost() != null) {
-                return username + " đã bình luận về bài viết của bạn";
-            } else if (comment.getFreePattern() != null) {
-                return username + " đã bình luận về chart của bạn";
-            } else {
-                return username + " đã bình luận về sản phẩm của bạn";
-            }
+    public String getTargetId(Comment comment) {
+        if (comment.getBlogPost() != null) {
+            return comment.getBlogPost().getId();
+        } else if (comment.getFreePattern() != null) {
+            return comment.getFreePattern().getId();
+        } else if (comment.getProduct() != null) {
+            return comment.getProduct().getId();
         }
         return null;
     }
+
+    public String getLink(CommentTarget target, String targetId) {
+        return switch (target) {
+            case BLOG_POST -> "/blogs/" + targetId;
+            case FREE_PATTERN -> "/free-patterns/" + targetId;
+            case PRODUCT -> "/shop/" + targetId;
+        };
+    }
+
+    public String getMessage(CommentTarget target, String username) {
+        return switch (target) {
+            case BLOG_POST -> username + " đã bình luận về bài viết của bạn";
+            case FREE_PATTERN -> username + " đã bình luận về chart của bạn";
+            case PRODUCT -> username + " đã bình luận về sản phẩm của bạn";
+        };
+    }
 }
@@ -3,12 +3,7 @@ package org.crochet.util;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.util.SerializationUtils;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.util.Base64;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -69,32 +64,4 @@ public class CookieUtils {
                     response.addCookie(cookie);
                 });
     }
-
-
-    /**
-     * Serialize
-     *
-     * @param object object
-     * @return Serialize string
-     */
-    public static String serialize(Object object) {
-        return Base64.getUrlEncoder()
-                .encodeToString(SerializationUtils.serialize(object));
-    }
-
-    /**
-     * Deserialize
-     *
-     * @param cookie Cookie
-     * @param cls    class type
-     * @return deserialize string
-     */
-    public static <T> T deserialize(Cookie cookie, Class<T> cls) {
-        try (ObjectInputStream ois = new ObjectInputStream(
-                new ByteArrayInputStream(Base64.getUrlDecoder().decode(cookie.getValue())))) {
-            return cls.cast(ois.readObject());
-        } catch (IOException | ClassNotFoundException e) {
-            throw new RuntimeException(e);
-        }
-    }
 }
@@ -0,0 +1,75 @@
+package org.crochet.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.UtilityClass;
+import org.crochet.enums.ResultCode;
+import org.crochet.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes opaque keyset cursors over (createdDate, id).
+ */
+@UtilityClass
+public class CursorUtils {
+    private static final char SEPARATOR = '|';
+
+    // Mốc bắt đầu cho trang đầu tiên, lớn hơn mọi createdDate có thể lưu trong MySQL DATETIME
+    public static final Cursor FIRST = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), "");
+
+    /**
+     * Encode the position after the given row
+     *
+     * @param createdDate Created date of the last row of the page
+     * @param id          Id of the last row of the page
+     * @return Opaque cursor
+     */
+    public String encode(LocalDateTime createdDate, String id) {
+        String raw = createdDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor
+     *
+     * @param cursor Opaque cursor, null or empty for the first page
+     * @return Cursor
+     * @throws BadRequestException if the cursor is malformed
+     */
+    public Cursor decode(String cursor) {
+        if (!ObjectUtils.hasText(cursor)) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw invalidCursor();
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw invalidCursor();
+        }
+    }
+
+    private BadRequestException invalidCursor() {
+        return new BadRequestException(
+                ResultCode.MSG_INVALID_CURSOR.message(),
+                ResultCode.MSG_INVALID_CURSOR.code()
+        );
+    }
+
+    /**
+     * Keyset position: rows strictly before (createdDate, id) in descending order come next.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Cursor {
+        private final LocalDateTime createdDate;
+        private final String id;
+    }
+}
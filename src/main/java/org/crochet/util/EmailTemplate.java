@@ -0,0 +1,89 @@
+package org.crochet.util;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTML email template with {@code {{placeholder}}} variables.
+ * <p>
+ * The template is split into literal and placeholder segments once, so rendering is a single pass
+ * over a precomputed list. Values are HTML escaped.
+ */
+public class EmailTemplate {
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final List<String> literals;
+    private final List<String> placeholders;
+    private final int estimatedLength;
+
+    private EmailTemplate(List<String> literals, List<String> placeholders, int estimatedLength) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.estimatedLength = estimatedLength;
+    }
+
+    /**
+     * Load and compile a template from the classpath
+     *
+     * @param path Classpath location of the template
+     * @return The compiled template
+     */
+    public static EmailTemplate load(String path) {
+        try (var in = new ClassPathResource(path).getInputStream()) {
+            return compile(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load email template " + path, e);
+        }
+    }
+
+    /**
+     * Compile a template
+     *
+     * @param source Template source
+     * @return The compiled template
+     */
+    public static EmailTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int from = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, from)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                break;
+            }
+            literals.add(source.substring(from, open));
+            placeholders.add(source.substring(open + OPEN.length(), close).trim());
+            from = close + CLOSE.length();
+        }
+        literals.add(source.substring(from));
+        return new EmailTemplate(List.copyOf(literals), List.copyOf(placeholders), source.length() + 256);
+    }
+
+    /**
+     * Render the template
+     *
+     * @param values Placeholder values, missing ones render as empty
+     * @return The rendered HTML
+     */
+    public String render(Map<String, String> values) {
+        StringBuilder sb = new StringBuilder(estimatedLength);
+        for (int i = 0; i < placeholders.size(); i++) {
+            sb.append(literals.get(i));
+            String value = values.get(placeholders.get(i));
+            if (value != null) {
+                sb.append(HtmlUtils.htmlEscape(value, StandardCharsets.UTF_8.name()));
+            }
+        }
+        sb.append(literals.getLast());
+        return sb.toString();
+    }
+}
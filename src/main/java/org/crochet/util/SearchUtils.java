@@ -0,0 +1,53 @@
+package org.crochet.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+@UtilityClass
+public class SearchUtils {
+    private static final Pattern MARKUP = Pattern.compile("<[^>]*>|&[#a-zA-Z0-9]+;");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    /**
+     * Remove diacritics and lower-case a text, so "Móc len Đẹp" becomes "moc len dep"
+     *
+     * @param text Text
+     * @return Folded text
+     */
+    public String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        // "đ" không phân rã thành "d" + dấu trong Unicode nên phải thay riêng
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Split a text into folded search terms. HTML tags and entities are dropped and terms shorter
+     * than two characters are skipped.
+     *
+     * @param text Text, may be null or contain HTML
+     * @return Terms in text order, with duplicates
+     */
+    public List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = fold(MARKUP.matcher(text).replaceAll(" "));
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(folded)) {
+            if (term.length() >= MIN_TOKEN_LENGTH) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -3,6 +3,11 @@ package org.crochet.util;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
 public class TokenUtils {
     /**
      * Retrieves the JWT (JSON Web Token) from the "Authorization" header of an HTTP request.
@@ -23,4 +28,21 @@ public class TokenUtils {
         // Return null if the JWT is not found or the "Authorization" header is missing or malformed
         return null;
     }
+
+    /**
+     * Computes the SHA-256 digest of a token, hex encoded.
+     * <p>
+     * Used as a fixed-size key for caches and lookups instead of the full token string.
+     *
+     * @param token The raw token.
+     * @return The hex encoded digest.
+     */
+    public static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package org.crochet.security.oauth2;
+
+import org.crochet.properties.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.util.SerializationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OAuth2AuthorizationRequestCodecTest {
+    // Giới hạn kích thước cookie của trình duyệt
+    private static final int MAX_COOKIE_BYTES = 4096;
+
+    private OAuth2AuthorizationRequestCodec codec;
+    private OAuth2AuthorizationRequest authorizationRequest;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getAuth().setTokenSecret(Base64.getEncoder().encodeToString(
+                "codec-test-token-secret-codec-test-token-secret-codec-secret!".getBytes(StandardCharsets.UTF_8)));
+        codec = new OAuth2AuthorizationRequestCodec(appProperties);
+        authorizationRequest = OAuth2AuthorizationRequest.authorizationCode()
+                .authorizationUri("https://accounts.google.com/o/oauth2/v2/auth")
+                .clientId("123456789012-abcdefghijklmnopqrstuvwxyz012345.apps.googleusercontent.com")
+                .redirectUri("https://api.tieuphuongcrochet.com/oauth2/callback/google")
+                .scopes(Set.of("email", "profile"))
+                .state("k2VbL0_Yy3Q3uUQ1m9a8Wc6dE5fR4tG3hJ2kL1zX0cV=")
+                .additionalParameters(Map.of("nonce", "a3F5dG9rZW4tbm9uY2UtdmFsdWUtZm9yLWJlbmNobWFyaw"))
+                .attributes(Map.of("registration_id", "google",
+                        "nonce", "bm9uY2UtYXR0cmlidXRlLXZhbHVlLWZvci1iZW5jaG1hcmstMDEyMzQ1Njc4OQ"))
+                .build();
+    }
+
+    @Test
+    void encode_isSmallerThanJavaSerialization() {
+        String encoded = codec.encode(authorizationRequest);
+        String serialized = Base64.getUrlEncoder()
+                .encodeToString(SerializationUtils.serialize(authorizationRequest));
+
+        assertTrue(encoded.length() < serialized.length(),
+                () -> "codec=" + encoded.length() + " bytes, java serialization=" + serialized.length() + " bytes");
+        assertTrue(encoded.length() < MAX_COOKIE_BYTES);
+    }
+
+    @Test
+    void decode_restoresEncodedRequest() {
+        OAuth2AuthorizationRequest decoded = codec.decode(codec.encode(authorizationRequest));
+
+        assertEquals(authorizationRequest.getAuthorizationUri(), decoded.getAuthorizationUri());
+        assertEquals(authorizationRequest.getClientId(), decoded.getClientId());
+        assertEquals(authorizationRequest.getRedirectUri(), decoded.getRedirectUri());
+        assertEquals(authorizationRequest.getScopes(), decoded.getScopes());
+        assertEquals(authorizationRequest.getState(), decoded.getState());
+        assertEquals(authorizationRequest.getAdditionalParameters(), decoded.getAdditionalParameters());
+        assertEquals(authorizationRequest.getAttributes(), decoded.getAttributes());
+    }
+}
@@ -0,0 +1,204 @@
+package org.crochet.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.crochet.enums.RoleType;
+import org.crochet.event.CommentCreatedEvent;
+import org.crochet.model.Category;
+import org.crochet.model.FreePattern;
+import org.crochet.model.User;
+import org.crochet.payload.request.CommentRequest;
+import org.crochet.payload.response.CommentResponse;
+import org.crochet.properties.AppProperties;
+import org.crochet.repository.BlogPostRepository;
+import org.crochet.repository.CategoryRepo;
+import org.crochet.repository.CommentRepoImpl;
+import org.crochet.repository.CommentRepository;
+import org.crochet.repository.FreePatternRepository;
+import org.crochet.repository.NotificationRepository;
+import org.crochet.repository.ProductRepository;
+import org.crochet.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the number of JDBC statements of the comment write path, including the commit flush.
+ * <p>
+ * Budget for a new comment, excluding the notifications created after commit:
+ * root: target check, author and mention names, insert, target counter.
+ * Reply: plus the parent read and the parent reply counter. A mention rides on the author query.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CommentServiceImplTest {
+    private static final long ROOT_STATEMENTS = 4;
+    private static final long REPLY_STATEMENTS = 6;
+
+    @Autowired
+    private CommentRepository commentRepo;
+    @Autowired
+    private BlogPostRepository blogPostRepo;
+    @Autowired
+    private ProductRepository productRepo;
+    @Autowired
+    private FreePatternRepository freePatternRepo;
+    @Autowired
+    private CategoryRepo categoryRepo;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private NotificationRepository notificationRepo;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Object> events = new ArrayList<>();
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private CommentServiceImpl commentService;
+    private User author;
+    private User mentioned;
+    private String freePatternId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        AppProperties appProperties = new AppProperties();
+        commentService = new CommentServiceImpl(commentRepo, new CommentRepoImpl(jdbcTemplate), blogPostRepo,
+                productRepo, freePatternRepo, userRepository, events::add,
+                new CommentThreadCache(appProperties, new SimpleMeterRegistry()), notificationRepo,
+                transactionTemplate, appProperties);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            author = userRepository.save(User.builder()
+                    .name("Author")
+                    .email("author@crochet.test")
+                    .password("password")
+                    .imageUrl("https://crochet.test/author.png")
+                    .build());
+            mentioned = userRepository.save(User.builder()
+                    .name("Mentioned")
+                    .email("mentioned@crochet.test")
+                    .password("password")
+                    .build());
+            Category category = categoryRepo.save(Category.builder().name("Amigurumi").build());
+            freePatternId = freePatternRepo.save(FreePattern.builder()
+                    .name("Bunny")
+                    .category(category)
+                    .build()).getId();
+        });
+
+        // Principal dựng từ claims của token chỉ có id, role và emailVerified
+        User principal = User.builder()
+                .id(author.getId())
+                .role(RoleType.USER)
+                .emailVerified(true)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        var jdbc = jdbcTemplate.getJdbcTemplate();
+        jdbc.update("DELETE FROM comment WHERE parent_id IS NOT NULL");
+        jdbc.update("DELETE FROM comment");
+        jdbc.update("DELETE FROM free_pattern");
+        jdbc.update("DELETE FROM category");
+        jdbc.update("DELETE FROM users");
+    }
+
+    @Test
+    void createOrUpdate_rootComment() {
+        long[] statements = new long[1];
+        CommentResponse response = create(request(null, null), statements);
+
+        assertEquals(ROOT_STATEMENTS, statements[0]);
+        assertEquals("Author", response.getUsername());
+        assertEquals("https://crochet.test/author.png", response.getUserAvatar());
+        assertEquals(1, commentCount());
+        assertEquals("Author", ((CommentCreatedEvent) events.getLast()).getSenderName());
+    }
+
+    @Test
+    void createOrUpdate_reply() {
+        CommentResponse root = create(request(null, null), new long[1]);
+
+        long[] statements = new long[1];
+        CommentResponse reply = create(request(root.getId(), null), statements);
+
+        assertEquals(REPLY_STATEMENTS, statements[0]);
+        assertEquals(root.getId(), reply.getParentId());
+        assertEquals("Author", reply.getUsername());
+        assertEquals(1, replyCount(root.getId()));
+        assertEquals(2, commentCount());
+    }
+
+    @Test
+    void createOrUpdate_replyWithMention() {
+        CommentResponse root = create(request(null, null), new long[1]);
+
+        long[] statements = new long[1];
+        CommentResponse reply = create(request(root.getId(), mentioned.getId()), statements);
+
+        assertEquals(REPLY_STATEMENTS, statements[0]);
+        assertEquals("Author", reply.getUsername());
+        assertEquals("Mentioned", reply.getMentionedUsername());
+        assertEquals(1, replyCount(root.getId()));
+        assertEquals(2, commentCount());
+    }
+
+    private CommentResponse create(CommentRequest request, long[] statements) {
+        statistics.clear();
+        CommentResponse response = transactionTemplate.execute(status -> commentService.createOrUpdate(request));
+        statements[0] = statistics.getPrepareStatementCount();
+        return response;
+    }
+
+    private CommentRequest request(String parentId, String mentionedUserId) {
+        CommentRequest request = new CommentRequest();
+        request.setFreePatternId(freePatternId);
+        request.setParentId(parentId);
+        request.setMentionedUserId(mentionedUserId);
+        request.setContent("Mẫu rất đẹp");
+        return request;
+    }
+
+    private int commentCount() {
+        return freePatternRepo.getCommentCount(freePatternId).orElseThrow();
+    }
+
+    private int replyCount(String commentId) {
+        return commentRepo.findById(commentId).orElseThrow().getReplyCount();
+    }
+}
@@ -0,0 +1,141 @@
+package org.crochet.service.impl;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.crochet.enums.EmailStatus;
+import org.crochet.model.EmailOutbox;
+import org.crochet.properties.AppProperties;
+import org.crochet.repository.EmailOutboxRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drains the outbox against a local fake SMTP server.
+ */
+@Slf4j
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxServiceImplTest {
+    private static final int EMAILS = 200;
+    private static final int BATCH_SIZE = 50;
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailOutboxRepo emailOutboxRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private EmailOutboxServiceImpl emailOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        javaMailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        AppProperties appProperties = new AppProperties();
+        appProperties.getMail().setOutboxBatchSize(BATCH_SIZE);
+
+        emailOutboxService = new EmailOutboxServiceImpl(emailOutboxRepo, javaMailSender,
+                new TransactionTemplate(transactionManager), appProperties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        emailOutboxRepo.deleteAll();
+    }
+
+    @Test
+    void deliverDueEmails_deliversEveryQueuedEmailAndMarksItSent() throws MessagingException {
+        LocalDateTime due = LocalDateTime.now().minusMinutes(1);
+        List<EmailOutbox> queued = new ArrayList<>();
+        Set<String> recipients = new HashSet<>();
+        for (int i = 0; i < EMAILS; i++) {
+            String recipient = "user" + i + "@crochet.test";
+            recipients.add(recipient);
+            queued.add(EmailOutbox.builder()
+                    .recipient(recipient)
+                    .subject("Subject " + i)
+                    .content("<p>Content " + i + "</p>")
+                    .nextAttemptAt(due)
+                    .build());
+        }
+        emailOutboxRepo.saveAll(queued);
+
+        long start = System.nanoTime();
+        int processed = emailOutboxService.deliverDueEmails();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        assertEquals(EMAILS, processed);
+        assertTrue(greenMail.waitForIncomingEmail(5_000, EMAILS));
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(EMAILS, received.length);
+        Set<String> delivered = new HashSet<>();
+        for (MimeMessage message : received) {
+            for (Address address : message.getAllRecipients()) {
+                delivered.add(address.toString());
+            }
+        }
+        assertEquals(recipients, delivered);
+
+        List<EmailOutbox> stored = emailOutboxRepo.findAll();
+        assertEquals(EMAILS, stored.size());
+        for (EmailOutbox email : stored) {
+            assertEquals(EmailStatus.SENT, email.getStatus());
+            assertEquals(1, email.getAttempts());
+            assertNotNull(email.getSentAt());
+            assertNull(email.getLastError());
+        }
+
+        // Chỉ ghi log throughput, không làm test thất bại trên máy chạy chậm
+        log.info("Delivered {} emails in {} ms ({} emails/s)", EMAILS, Math.round(seconds * 1000),
+                Math.round(EMAILS / seconds));
+    }
+
+    @Test
+    void deliverDueEmails_leavesEmailsThatAreNotDueQueued() {
+        emailOutboxRepo.save(EmailOutbox.builder()
+                .recipient("later@crochet.test")
+                .subject("Later")
+                .content("<p>Later</p>")
+                .nextAttemptAt(LocalDateTime.now().plusHours(1))
+                .build());
+
+        assertEquals(0, emailOutboxService.deliverDueEmails());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+        assertEquals(EmailStatus.PENDING, emailOutboxRepo.findAll().getFirst().getStatus());
+    }
+}